@@ -2,4 +2,10 @@
 
 CURRENT_DIR="$( cd $( dirname ${BASH_SOURCE[0]} ) >/dev/null 2>&1 && pwd )"
 
+# Class data sharing archive is dumped by `make build-app-cds`, JVM ignores it if the app was assembled again
+CDS_ARCHIVE="${CURRENT_DIR}/target/appassembler/dinner.jsa"
+if [[ -f "${CDS_ARCHIVE}" ]]; then
+    export JAVA_OPTS="-XX:SharedArchiveFile=${CDS_ARCHIVE} -Xshare:auto ${JAVA_OPTS}"
+fi
+
 ${CURRENT_DIR}/target/appassembler/bin/dinner $@
\ No newline at end of file
@@ -0,0 +1,79 @@
+package org.solveme.philosophers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Periodically changes membership of the running dinner: either seats a newcomer at a random vacant seat
+ * or asks a random philosopher to leave
+ */
+@Slf4j
+public class Churn implements Runnable {
+
+    private static final int MIN_SEATED = 2;
+
+    private final Dinner<?, ?> dinner;
+    private final long periodMillis;
+    private final SplittableRandom random;
+    private final Thread thread;
+
+    public Churn(Dinner<?, ?> dinner, long periodMillis, SplittableRandom random) {
+        this.dinner = dinner;
+        this.periodMillis = periodMillis;
+        this.random = random;
+        this.thread = new Thread(this, StringUtils.leftPad("Churn", Identity.MAX_LENGTH));
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Interrupts membership changes and waits until the current one is either completed or rolled back
+     */
+    public void stop() {
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+
+        thread.interrupt();
+        try {
+            thread.join();
+
+        } catch (InterruptedException e) {
+            log.debug("Interrupted while waiting for churn to stop");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        Table table = dinner.getTable();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(periodMillis);
+
+            } catch (InterruptedException e) {
+                log.debug("Churn was stopped");
+                return;
+            }
+
+            int size = table.getSize();
+            boolean join = size < table.getCapacity() && (size <= MIN_SEATED || random.nextBoolean());
+            int start = random.nextInt(table.getCapacity());
+
+            if (join) {
+                dinner.join(table.nextVacantSeat(start));
+            } else {
+                dinner.leave(table.nextTakenSeat(start));
+            }
+        }
+    }
+
+}
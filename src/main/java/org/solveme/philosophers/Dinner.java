@@ -2,21 +2,30 @@ package org.solveme.philosophers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.solveme.philosophers.progress.ProgressContext;
+import org.solveme.philosophers.progress.Dashboard;
+import org.solveme.philosophers.recorders.ConcurrencyRecorder;
 import org.solveme.philosophers.recorders.DinnerTimeRecorder;
+import org.solveme.philosophers.recorders.LiveRecorder;
 import org.solveme.philosophers.results.ForkResults;
+import org.solveme.philosophers.results.IntervalResults;
+import org.solveme.philosophers.results.MembershipResults;
 import org.solveme.philosophers.results.PhilosopherResults;
+import org.solveme.philosophers.results.ScenarioResults;
 import org.solveme.philosophers.util.Util;
 
 import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.BrokenBarrierException;
+import java.util.Objects;
+import java.util.SplittableRandom;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.solveme.philosophers.util.Util.OUT;
 
@@ -24,19 +33,51 @@ import static org.solveme.philosophers.util.Util.OUT;
 @Slf4j
 public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
 
+    private static final int PARALLEL_WAKE_UP_THRESHOLD = 1024;
+
     protected final DinnerApp.Settings settings;
     protected final Table table;
-    protected final List<P> philosophers;
-    protected final List<F> forks;
-    protected final List<Runner> threads;
+    /**
+     * Seats are written by membership changes while others read them, vacant seats are null
+     */
+    protected final AtomicReferenceArray<P> philosophers;
+    protected final AtomicReferenceArray<F> forks;
+    protected final AtomicReferenceArray<Runner> threads;
     protected final Coordinator<F, P> coordinator;
     protected final DinnerTimeRecorder timeRecorder = new DinnerTimeRecorder();
+    protected final ConcurrencyRecorder concurrencyRecorder;
+    protected final LiveRecorder liveRecorder;
+    private final ShutdownEpoch shutdownEpoch = new ShutdownEpoch();
+    private final SplittableRandom random;
+
+    /**
+     * Time from the shutdown broadcast until the last philosopher has finished
+     */
+    private volatile long quiesceNanos;
+
+    private final Thread.UncaughtExceptionHandler exceptionHandler = (thread, throwable) -> {
+        log.error(throwable.getMessage(), throwable);
+        abort();
+    };
+
+    private final Object membershipLock = new Object();
+    private final AtomicInteger membershipChanges = new AtomicInteger();
+    private volatile boolean rebalancing = false;
+
+    /**
+     * Maximum amount of philosophers hosted by this process at the same time, grows when newcomers join
+     */
+    private volatile int peakSeatCount;
+
+    private volatile Churn churn;
+    private volatile Watchdog watchdog;
+    private volatile IntervalSampler sampler;
 
     public Dinner(@Nonnull DinnerApp.Settings settings,
                   @Nonnull Table table,
-                  @Nonnull List<P> philosophers,
-                  @Nonnull List<F> forks,
-                  @Nonnull List<Runner> threads,
+                  @Nonnull AtomicReferenceArray<P> philosophers,
+                  @Nonnull AtomicReferenceArray<F> forks,
+                  @Nonnull AtomicReferenceArray<Runner> threads,
                   @Nonnull Coordinator<F, P> coordinator
     ) {
         this.settings = settings;
@@ -45,16 +86,25 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
         this.forks = forks;
         this.threads = threads;
         this.coordinator = coordinator;
+        this.random = new SplittableRandom(settings.getSeed());
+        settings.validateSlice();
+        this.concurrencyRecorder = new ConcurrencyRecorder(table.getCapacity() / 2);
+        this.liveRecorder = new LiveRecorder(table.getCapacity());
+        this.peakSeatCount = settings.getHostedSeatCount();
     }
 
     public Dinner(@Nonnull DinnerApp.Settings settings) {
+        this(settings, new Coordinator<>(settings.getHostedSeatCount()));
+    }
+
+    protected Dinner(@Nonnull DinnerApp.Settings settings, @Nonnull Coordinator<F, P> coordinator) {
         this(
                 settings,
-                new Table(settings.getSeatCount()),
-                new ArrayList<>(settings.getSeatCount()),
-                new ArrayList<>(settings.getSeatCount()),
-                new ArrayList<>(settings.getSeatCount()),
-                new Coordinator<>(settings.getSeatCount())
+                new Table(settings.getSeatCapacity(), settings.getSeatCount()),
+                new AtomicReferenceArray<>(settings.getSeatCapacity()),
+                new AtomicReferenceArray<>(settings.getSeatCapacity()),
+                new AtomicReferenceArray<>(settings.getSeatCapacity()),
+                coordinator
         );
     }
 
@@ -62,32 +112,63 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
 
         // Init forks
         for (int forkId = 0; forkId < settings.getSeatCount(); forkId++) {
-            forks.add(buildFork(this, forkId));
+            initFork(forkId);
         }
 
-        final Thread.UncaughtExceptionHandler exceptionHandler = (thread, throwable) -> {
-            log.error(throwable.getMessage(), throwable);
-            abort();
-        };
-
-        // Init philosophers
+        // Init philosophers, other seats are hosted by other processes
         for (int seatId = 0; seatId < settings.getSeatCount(); seatId++) {
-            P philosopher = buildPhilosopher(this, Identity.at(table.normalizeSeatId(seatId)));
-            philosophers.add(seatId, philosopher);
-
-            Runner philosopherThread = new Runner(() -> {
-                coordinator.readyToStart(philosopher);
-                Philosopher.Result result = philosopher.run();
-                coordinator.finishedWith(result);
-            });
+            if (settings.hostsSeat(seatId)) {
+                initPhilosopher(seatId, true);
+            }
+        }
 
-            philosopher.setRunner(philosopherThread);
+    }
 
-            philosopherThread.setName(philosopher.getIdentity().padded());
-            philosopherThread.setUncaughtExceptionHandler(exceptionHandler);
-            threads.add(seatId, philosopherThread);
+    private F initFork(int forkId) {
+        F fork = buildFork(this, forkId);
+        fork.setReleaseDelayMillis(settings.getScenario().releaseDelayMillisOf(forkId));
+        if (settings.getSliceCount() > 1) {
+            // Philosophers of other processes don't set users of forks, which they share with local ones
+            fork.setRightUser(Identity.at(forkId));
+            fork.setLeftUser(Identity.at(table.getLeftNeighbour(forkId)));
         }
+        forks.set(forkId, fork);
+        return fork;
+    }
+
+    /**
+     * @param initial whether philosopher takes the seat before the dinner starts,
+     *                otherwise it joins the running dinner without waiting for others
+     */
+    private Runner initPhilosopher(int seatId, boolean initial) {
+        P philosopher = buildPhilosopher(this, Identity.at(seatId));
+        philosophers.set(seatId, philosopher);
+
+        Runner philosopherThread = buildRunner(philosopher, initial);
+        philosopher.setRunner(philosopherThread);
+        threads.set(seatId, philosopherThread);
+
+        return philosopherThread;
+    }
+
+    /**
+     * Each philosopher is run within its own thread by default
+     *
+     * @return thread of the philosopher, or null if philosophers are driven by the dinner itself
+     */
+    protected Runner buildRunner(P philosopher, boolean initial) {
+        Runner philosopherThread = new Runner(() -> {
+            if (initial) {
+                coordinator.readyToStart(philosopher);
+            }
+            Philosopher.Result result = philosopher.run();
+            coordinator.finishedWith(result);
+        }, shutdownEpoch);
+
+        philosopherThread.setName(philosopher.getIdentity().padded());
+        philosopherThread.setUncaughtExceptionHandler(exceptionHandler);
 
+        return philosopherThread;
     }
 
     protected abstract F buildFork(Dinner<F, P> dinner, int forkId);
@@ -96,7 +177,17 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
 
     public void start() {
 
-        threads.forEach(Thread::start);
+        concurrencyRecorder.recordStart();
+        seatedThreads().forEach(Thread::start);
+        try {
+            awaitStart();
+
+        } catch (RuntimeException e) {
+            // Philosophers wait at the start gate, so they are released before the failure is reported
+            shutdownEpoch.broadcast(false);
+            seatedThreads().forEach(Thread::interrupt);
+            throw e;
+        }
 
         if (!coordinator.waitForOtherToStart()) {
             return;
@@ -104,21 +195,106 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
             timeRecorder.recordStart();
         }
 
+        if (settings.getChurnMillis() > 0) {
+            if (supportsMembershipChanges()) {
+                churn = new Churn(this, settings.getChurnMillis(), splitRandom());
+                churn.start();
+            } else {
+                log.warn("Seats of {} dinner are fixed, so membership changes are ignored", getClass().getSimpleName());
+            }
+        }
+
+        if (settings.getWatchdogMillis() > 0) {
+            watchdog = new Watchdog(this, settings.getWatchdogMillis());
+            watchdog.start();
+        }
+
+        if (settings.getIntervalMillis() > 0) {
+            sampler = new IntervalSampler(this, settings.getIntervalMillis(), settings.getIntervalFile());
+            sampler.start();
+        }
+
         progressLoop();
 
         log.warn("Dinner ends, wait for everybody to stop");
         stop(true);
     }
 
+    /**
+     * Called when philosophers are started and wait for the start signal,
+     * so the start could be synchronized with something outside of the dinner
+     *
+     * @throws RuntimeException if the dinner could not be started, then philosophers are stopped
+     */
+    protected void awaitStart() {
+        // no-op
+    }
+
+    /**
+     * Only the call, which broadcasts the shutdown, waits for everybody and displays results,
+     * concurrent or later calls return right after it
+     */
     public void stop(boolean graceful) {
-        threads.forEach(r -> r.shutdown(graceful));
+        // Shutdown should not be treated as a stall
+        Watchdog currentWatchdog = watchdog;
+        if (currentWatchdog != null) {
+            currentWatchdog.stop();
+        }
 
+        IntervalSampler currentSampler = sampler;
+        if (currentSampler != null) {
+            currentSampler.stop();
+        }
+
+        // Membership should be frozen before shutdown, otherwise late joiner could miss it
+        Churn currentChurn = churn;
+        if (currentChurn != null) {
+            currentChurn.stop();
+        }
+
+        // The dinner ends at the moment of broadcast, waking up of blocked philosophers is not a part of it
+        if (!shutdownEpoch.broadcast(graceful)) {
+            log.debug("Dinner is already stopping");
+            return;
+        }
         timeRecorder.recordEnd();
+        concurrencyRecorder.recordEnd();
+
+        // Interruption is expensive, so it's shared by several threads for large tables
+        List<Runner> seated = seatedThreads();
+        (seated.size() > PARALLEL_WAKE_UP_THRESHOLD ? seated.parallelStream() : seated.stream()).forEach(Thread::interrupt);
+
         coordinator.waitForOtherToFinish();
+        quiesceNanos = System.nanoTime() - shutdownEpoch.getBroadcastNanos();
 
+        beforeResults();
         displayResults();
     }
 
+    /**
+     * For philosophers and helper threads, which are not runners of the dinner
+     */
+    protected boolean isShutdown() {
+        return shutdownEpoch.isBroadcast();
+    }
+
+    /**
+     * Membership of the running dinner could be changed by default
+     *
+     * @return false if seats are fixed, then {@link #join(int)} and {@link #leave(int)} are always rejected
+     */
+    protected boolean supportsMembershipChanges() {
+        return true;
+    }
+
+    /**
+     * Called when everybody has finished, but results are not displayed yet, so helper threads of the strategy
+     * could complete pending requests of philosophers and stop before forks are read
+     */
+    protected void beforeResults() {
+        // no-op
+    }
+
     public void abort() {
         log.warn("Dinner aborted");
         stop(false);
@@ -127,8 +303,11 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
     public void progressLoop() {
         if (settings.isShowProgress()) {
             OUT.println();
-            try (ProgressContext progress = ProgressContext.from(philosophers)) {
-                progressLoop(() -> progress.tick(TimeUnit.SECONDS.toMillis(settings.getDurationSeconds())));
+            try (Dashboard dashboard = Dashboard.from(this)) {
+                progressLoop(() -> dashboard.tick(
+                        timeRecorder.getRunningDuration().getMillis(),
+                        TimeUnit.SECONDS.toMillis(settings.getDurationSeconds())
+                ));
             }
             OUT.println();
 
@@ -156,22 +335,236 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
         OUT.println();
         PhilosopherResults.from(
                 coordinator.getResults(),
-                timeRecorder.getRunningDuration().toDuration()
+                timeRecorder.getRunningDuration().toDuration(),
+                concurrencyRecorder.summary(peakSeatCount),
+                settings.getMaxResultRows()
         ).print();
+        printTimings();
         OUT.println();
+        if (settings.getScenario().hasHotSpots()) {
+            ScenarioResults.from(
+                    settings.getScenario(),
+                    table,
+                    coordinator.getResults(),
+                    timeRecorder.getRunningDuration().toDuration()
+            ).print();
+            OUT.println();
+        }
+        if (membershipChanges.get() > 0) {
+            MembershipResults.from(
+                    coordinator.getResults(),
+                    timeRecorder.getStartNanos(),
+                    timeRecorder.getRunningDuration().toDuration()
+            ).print();
+            OUT.println();
+        }
+        if (sampler != null && !sampler.getIntervals().isEmpty()) {
+            IntervalResults.from(
+                    sampler.getIntervals(),
+                    timeRecorder.getRunningDuration().toDuration()
+            ).print();
+            OUT.println();
+        }
         ForkResults.from(
-                forks.stream().map(Fork::calculateResult).collect(Collectors.toList()),
-                timeRecorder.getRunningDuration().toDuration()
+                taken(forks),
+                timeRecorder.getRunningDuration().toDuration(),
+                settings.getMaxResultRows()
         ).print();
         OUT.println();
     }
 
+    /**
+     * Startup is measured since JVM start, since it's a considerable part of short runs
+     */
+    private void printTimings() {
+        if (timeRecorder.getStart() == null) {
+            return;
+        }
+
+        long sinceJvmStartMillis = timeRecorder.getStart().toEpochMilli() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        long firstMealNanos = liveRecorder.getFirstMealNanos();
+        if (firstMealNanos == 0) {
+            OUT.printf("Startup: dinner started %d ms after JVM start, nobody has eaten%n", sinceJvmStartMillis);
+        } else {
+            // Philosophers are released by the start gate slightly before the start is recorded
+            long firstMealMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(firstMealNanos - timeRecorder.getStartNanos()));
+            OUT.printf("Startup: dinner started %d ms after JVM start, time to first meal %d ms (%d ms after JVM start)%n",
+                    sinceJvmStartMillis, firstMealMillis, sinceJvmStartMillis + firstMealMillis);
+        }
+
+        StartGate startGate = coordinator.getStartGate();
+        OUT.printf("Start skew: everybody passed the start gate within %d us, the last one %d us after the start epoch%n",
+                TimeUnit.NANOSECONDS.toMicros(startGate.getStartSkewNanos()),
+                TimeUnit.NANOSECONDS.toMicros(startGate.getLatenessNanos()));
+        OUT.printf("Shutdown: everybody stopped %d ms after the end of the dinner%n", TimeUnit.NANOSECONDS.toMillis(quiesceNanos));
+    }
+
+    /**
+     * Each philosopher gets its own generator split from the dinner one, thus random durations are reproducible
+     * for the same seed and philosophers never contend on a shared generator
+     */
+    public synchronized SplittableRandom splitRandom() {
+        return random.split();
+    }
+
+    /**
+     * @return amount of initially taken seats
+     */
     public int getSeatCount() {
         return settings.getSeatCount();
     }
 
+    public int getSeatCapacity() {
+        return table.getCapacity();
+    }
+
+    /**
+     * @return amount of forks, that could be placed on the table
+     */
     public int getForkCount() {
-        return getSeatCount();
+        return getSeatCapacity();
+    }
+
+    public ConcurrencyRecorder getConcurrencyRecorder() {
+        return concurrencyRecorder;
+    }
+
+    public LiveRecorder getLiveRecorder() {
+        return liveRecorder;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public List<P> seatedPhilosophers() {
+        return taken(philosophers);
+    }
+
+    private List<Runner> seatedThreads() {
+        return taken(threads);
+    }
+
+    private static <T> List<T> taken(AtomicReferenceArray<T> seats) {
+        return IntStream.range(0, seats.length())
+                .mapToObj(seats::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+
+    // Membership
+
+    /**
+     * @return true while membership change is in progress
+     */
+    public boolean isRebalancing() {
+        return rebalancing;
+    }
+
+    /**
+     * Seats new philosopher at the running dinner. Left neighbour of the new seat switches its right fork
+     * to the fork of the new seat at its next safe point and starts the newcomer, so the newcomer never competes
+     * for a fork that is still used by somebody else in the same role. Blocks until newcomer is started.
+     *
+     * @return true if philosopher has joined the dinner
+     */
+    public boolean join(int seatId) {
+        if (!supportsMembershipChanges()) {
+            log.debug("Seat {} could not be taken, seats are fixed", seatId);
+            return false;
+        }
+
+        synchronized (membershipLock) {
+            if (table.isSeated(seatId)) {
+                log.debug("Seat {} is already taken", seatId);
+                return false;
+            }
+
+            rebalancing = true;
+            try {
+                F fork = forks.get(seatId) != null ? forks.get(seatId) : initFork(seatId);
+                Table.Neighbourhood neighbourhood = table.seat(seatId);
+                P leftNeighbour = getPhilosopherBySeatId(neighbourhood.getLeftNeighbour());
+
+                Rewiring<F> rewiring = new Rewiring<>(fork, () -> {
+                    coordinator.joined();
+                    initPhilosopher(seatId, false).start();
+                });
+                leftNeighbour.requestRewiring(rewiring);
+
+                if (!rewiring.await()) {
+                    table.unseat(seatId);
+                    return false;
+                }
+
+                membershipChanges.incrementAndGet();
+                peakSeatCount = Math.max(peakSeatCount, table.getSize());
+                log.info("{} joined the dinner between {} and {}",
+                        Identity.at(seatId), leftNeighbour.getIdentity(), Identity.at(neighbourhood.getRightNeighbour()));
+                return true;
+
+            } finally {
+                rebalancing = false;
+            }
+        }
+    }
+
+    /**
+     * Asks philosopher to leave the running dinner. When philosopher has finished, its fork is taken away
+     * and its left neighbour switches to the fork of its right neighbour. Blocks until rewiring is applied.
+     *
+     * @return true if philosopher has left the dinner
+     */
+    public boolean leave(int seatId) {
+        if (!supportsMembershipChanges()) {
+            log.debug("Philosopher at seat {} could not leave, seats are fixed", seatId);
+            return false;
+        }
+
+        synchronized (membershipLock) {
+            if (!table.isSeated(seatId) || table.getSize() <= 2) {
+                log.debug("Philosopher at seat {} could not leave the dinner", seatId);
+                return false;
+            }
+
+            rebalancing = true;
+            try {
+                Runner runner = threads.get(seatId);
+                runner.shutdown(true);
+                runner.join();
+
+                // Fork of the seat is kept for the next newcomer, but the leaver is not watched or interrupted anymore
+                philosophers.set(seatId, null);
+                threads.set(seatId, null);
+
+                Table.Neighbourhood neighbourhood = table.unseat(seatId);
+                P leftNeighbour = getPhilosopherBySeatId(neighbourhood.getLeftNeighbour());
+                F rightNeighbourFork = getForkById(table.leftForkIdFor(neighbourhood.getRightNeighbour()));
+
+                Rewiring<F> rewiring = new Rewiring<>(rightNeighbourFork, () -> {
+                    // no-op
+                });
+                leftNeighbour.requestRewiring(rewiring);
+
+                if (!rewiring.await()) {
+                    // Left neighbour keeps the fork of the left seat, which nobody else uses, so exclusion still holds
+                    log.warn("{} left the dinner, but {} keeps using fork #{}", Identity.at(seatId), leftNeighbour.getIdentity(), seatId);
+                }
+
+                membershipChanges.incrementAndGet();
+                log.info("{} left the dinner", Identity.at(seatId));
+                return true;
+
+            } catch (InterruptedException e) {
+                log.warn("Interrupted while waiting for {} to leave the dinner", Identity.at(seatId));
+                Thread.currentThread().interrupt();
+                return false;
+
+            } finally {
+                rebalancing = false;
+            }
+        }
     }
 
 
@@ -231,14 +624,14 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
     @RequiredArgsConstructor
     public static class Coordinator<F extends Fork, P extends Philosopher<F, P>> {
 
-        private final CyclicBarrier startTrigger;
-        private final CountDownLatch finishLatch;
+        private final StartGate startGate;
+        private final FinishLatch finishLatch;
         private final List<Philosopher.Result> results;
 
         public Coordinator(int seatCount) {
             this(
-                    new CyclicBarrier(seatCount + 1),
-                    new CountDownLatch(seatCount),
+                    new StartGate(seatCount),
+                    new FinishLatch(seatCount),
                     Collections.synchronizedList(new ArrayList<>(seatCount))
             );
         }
@@ -247,30 +640,36 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
             return results;
         }
 
+        public StartGate getStartGate() {
+            return startGate;
+        }
+
         public boolean waitForOtherToStart() {
-            try {
-                startTrigger.await();
+            if (startGate.awaitAndOpen()) {
                 log.warn("Everybody is ready. Start!");
                 return true;
-
-            } catch (InterruptedException | BrokenBarrierException e) {
-                log.warn("Dinner is over due to interrupt");
-                Thread.currentThread().interrupt();
-                return false;
             }
+
+            log.warn("Dinner is over due to interrupt");
+            Thread.currentThread().interrupt();
+            return false;
         }
 
         public void readyToStart(P philosopher) {
-            try {
-                log.info(philosopher.getIdentity() + " waits for other to start");
-                startTrigger.await();
-
-            } catch (InterruptedException | BrokenBarrierException e) {
+            log.info(philosopher.getIdentity() + " waits for other to start");
+            if (!startGate.arriveAndAwait()) {
                 log.info(philosopher.getIdentity() + " left the dinner before starting");
                 Thread.currentThread().interrupt();
             }
         }
 
+        /**
+         * Should be called before philosopher, that joins the running dinner, is started
+         */
+        public void joined() {
+            finishLatch.register();
+        }
+
         public void waitForOtherToFinish() {
             try {
                 finishLatch.await();
@@ -282,8 +681,48 @@ public abstract class Dinner<F extends Fork, P extends Philosopher<F, P>> {
         }
 
         public void finishedWith(Philosopher.Result result) {
+            collect(result);
+            finished();
+        }
+
+        /**
+         * For philosophers, who are not registered as separate parties, but are driven by a single one
+         */
+        public void collect(Philosopher.Result result) {
             results.add(result);
-            finishLatch.countDown();
+        }
+
+        public void finished() {
+            finishLatch.arrive();
+        }
+
+    }
+
+    /**
+     * Count down latch, which parties could join while it's not released. Unlike {@link java.util.concurrent.Phaser}
+     * the amount of parties is not limited
+     */
+    static class FinishLatch {
+
+        private final AtomicInteger unfinished;
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        FinishLatch(int parties) {
+            this.unfinished = new AtomicInteger(parties);
+        }
+
+        void register() {
+            unfinished.incrementAndGet();
+        }
+
+        void arrive() {
+            if (unfinished.decrementAndGet() == 0) {
+                released.countDown();
+            }
+        }
+
+        void await() throws InterruptedException {
+            released.await();
         }
 
     }
@@ -8,8 +8,20 @@ import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.solveme.philosophers.strategies.Remote;
+import org.solveme.philosophers.workload.Distribution;
+import org.solveme.philosophers.workload.Scenario;
+import org.solveme.philosophers.workload.Workload;
 import picocli.CommandLine;
 
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.UnaryOperator;
+
 import static com.diogonunes.jcolor.Attribute.*;
 import static org.solveme.philosophers.util.Util.OUT;
 
@@ -25,7 +37,49 @@ public class DinnerApp implements Runnable {
     Strategy strategy;
 
     @CommandLine.Option(names = "-c", paramLabel = "COUNT", description = "how many philosophers should be invited, default=${DEFAULT-VALUE}")
-    int philosophersCount = Identity.values().length;
+    int philosophersCount = Identity.NAMED.size();
+
+    @CommandLine.Option(names = "--capacity", paramLabel = "COUNT", description = "maximum amount of seats at the table, default is equal to -c")
+    int seatCapacity = 0;
+
+    @CommandLine.Option(names = "--churn", paramLabel = "MILLISECONDS", description = "period of membership changes (philosophers join and leave the running dinner), 0 - disabled, default=${DEFAULT-VALUE}")
+    int churnMillis = 0;
+
+    @CommandLine.Option(names = "--watchdog", paramLabel = "MILLISECONDS", description = "period of checks for stalled philosophers and deadlocks, 0 - disabled, default=${DEFAULT-VALUE}")
+    int watchdogMillis = 1000;
+
+    @CommandLine.Option(names = "--interval", paramLabel = "MILLISECONDS", description = "length of intervals for statistics over time, 0 - disabled, default=${DEFAULT-VALUE}")
+    int intervalMillis = 1000;
+
+    @CommandLine.Option(names = "--interval-file", paramLabel = "FILE", description = "CSV file to stream interval statistics into during the dinner")
+    Path intervalFile;
+
+    @CommandLine.Option(names = "--segments", paramLabel = "COUNT", description = "amount of table segments with own worker for SEGMENTED strategy, 0 - one per available processor, default=${DEFAULT-VALUE}")
+    int segmentCount = 0;
+
+    @CommandLine.Option(names = "--shared-table", paramLabel = "FILE", description = "memory-mapped file with forks shared by processes for MAPPED strategy, default is in temporary directory")
+    Path sharedTableFile;
+
+    @CommandLine.Option(names = "--slice", paramLabel = "INDEX", description = "slice of contiguous seats hosted by this process, the first one creates shared table, default=${DEFAULT-VALUE}")
+    int sliceIndex = 0;
+
+    @CommandLine.Option(names = "--slices", paramLabel = "COUNT", description = "amount of processes hosting philosophers of the dinner, default=${DEFAULT-VALUE}")
+    int sliceCount = 1;
+
+    @CommandLine.Option(names = "--port", paramLabel = "PORT", description = "localhost port of fork server for REMOTE strategy, default=${DEFAULT-VALUE}")
+    int port = 17017;
+
+    @CommandLine.Option(names = "--grant", paramLabel = "POLICY", description = "how fork server of REMOTE strategy grants forks: ${COMPLETION-CANDIDATES}, default=${DEFAULT-VALUE}")
+    Remote.Grant grant = Remote.Grant.QUEUE;
+
+    @CommandLine.Option(names = "--engine-threads", paramLabel = "COUNT", description = "executor threads, which drive all philosophers of ASYNC strategy or all forks of ACTOR strategy, 0 - one per available processor, default=${DEFAULT-VALUE}")
+    int engineThreads = 0;
+
+    @CommandLine.Option(names = "--aging", paramLabel = "ATTEMPTS", description = "failed attempts, after which ATOMIC philosopher is starving and its neighbours yield forks to it, 0 - disabled, default=${DEFAULT-VALUE}")
+    int agingAttempts = 0;
+
+    @CommandLine.Option(names = "--retry", paramLabel = "POLICY", description = "what philosopher does after failed attempt to acquire forks: ${COMPLETION-CANDIDATES}, default=${DEFAULT-VALUE}")
+    RetryPolicy retryPolicy = RetryPolicy.THINK;
 
     @CommandLine.Option(names = "-D", paramLabel = "SECONDS", description = "dinner duration in seconds, default=${DEFAULT-VALUE}")
     int dinnerDurationSeconds = 10;
@@ -33,16 +87,44 @@ public class DinnerApp implements Runnable {
     @CommandLine.Option(names = "-A", paramLabel = "MILLISECONDS", description = "action (eating/thinking) duration factor in millis, default=${DEFAULT-VALUE}")
     int actionDurationMillis = 100;
 
-    @CommandLine.Option(names = "-NP", description = "don't show progress bars during dinner, default=${DEFAULT-VALUE}")
+    @CommandLine.Option(names = "-E", paramLabel = "DISTRIBUTION", description = "eating duration distribution: uniform[:min,max], constant[:ms], exp[:mean], pareto[:scale,shape], bimodal[:low,high,p], trace:file, default=${DEFAULT-VALUE}")
+    String eatingDistribution = "uniform";
+
+    @CommandLine.Option(names = "-T", paramLabel = "DISTRIBUTION", description = "thinking duration distribution (same format as -E), default=${DEFAULT-VALUE}")
+    String thinkingDistribution = "uniform";
+
+    @CommandLine.Option(names = "--eat-at", paramLabel = "SEAT=DISTRIBUTION", description = "eating duration distribution for particular seat, overrides -E")
+    Map<Integer, String> eatingDistributionBySeat = new LinkedHashMap<>();
+
+    @CommandLine.Option(names = "--think-at", paramLabel = "SEAT=DISTRIBUTION", description = "thinking duration distribution for particular seat, overrides -T")
+    Map<Integer, String> thinkingDistributionBySeat = new LinkedHashMap<>();
+
+    @CommandLine.Option(names = "--greedy", paramLabel = "SEAT", split = ",", description = "seats of greedy philosophers, that eat longer and think shorter")
+    Set<Integer> greedySeats = new LinkedHashSet<>();
+
+    @CommandLine.Option(names = "--greedy-factor", paramLabel = "FACTOR", description = "how many times greedy philosopher eats longer and thinks shorter, default=${DEFAULT-VALUE}")
+    double greedyFactor = 4;
+
+    @CommandLine.Option(names = "--hot-fork", paramLabel = "FORK", split = ",", description = "forks, that are released with delay")
+    Set<Integer> hotForks = new LinkedHashSet<>();
+
+    @CommandLine.Option(names = "--hot-fork-delay", paramLabel = "MILLISECONDS", description = "how long hot fork is held before releasing, default=${DEFAULT-VALUE}")
+    long hotForkDelayMillis = 50;
+
+    @CommandLine.Option(names = "--seed", paramLabel = "SEED", description = "seed for random generators of philosophers, random by default")
+    Long seed;
+
+    @CommandLine.Option(names = "--max-rows", paramLabel = "COUNT", description = "larger tables of philosophers and forks are summarized by percentiles and extreme rows, default=${DEFAULT-VALUE}")
+    int maxResultRows = Settings.DEFAULT_MAX_RESULT_ROWS;
+
+    @CommandLine.Option(names = "-NP", description = "don't show live dashboard during dinner, default=${DEFAULT-VALUE}")
     boolean dontShowProgress = false;
 
     @CommandLine.Option(names = "-v", description = "Verbosity. Specify multiple -v options to increase verbosity (e.g. -vv)")
     boolean[] verbosity;
 
     public static void main(String[] args) {
-        AnsiFormat format = new AnsiFormat(RED_TEXT(), GREEN_BACK(), BOLD());
-        String threadName = StringUtils.leftPad("Dinner", Identity.MAX_LENGTH);
-        Thread.currentThread().setName(format.format(threadName));
+        Thread.currentThread().setName(highlight("Dinner", Ansi::dinner));
         int exitCode = new CommandLine(new DinnerApp()).execute(args);
         System.exit(exitCode);
     }
@@ -53,13 +135,46 @@ public class DinnerApp implements Runnable {
 
         log.info("Initialize dinner");
 
+        Scenario scenario = Scenario.builder()
+                .greedySeats(greedySeats)
+                .greedyFactor(greedyFactor)
+                .hotForks(hotForks)
+                .hotForkDelayMillis(hotForkDelayMillis)
+                .build();
+
+        if (scenario.hasHotSpots()) {
+            log.info("Scenario: {}", scenario);
+        }
+
         Settings settings = Settings.builder()
                 .seatCount(philosophersCount)
+                .seatCapacity(seatCapacity)
+                .churnMillis(churnMillis)
+                .watchdogMillis(watchdogMillis)
+                .intervalMillis(intervalMillis)
+                .intervalFile(intervalFile)
+                .segmentCount(segmentCount)
+                .sharedTableFile(sharedTableFile)
+                .sliceIndex(sliceIndex)
+                .sliceCount(sliceCount)
+                .port(port)
+                .grant(grant)
+                .engineThreads(engineThreads)
+                .agingAttempts(agingAttempts)
+                .retryPolicy(retryPolicy)
                 .durationSeconds(dinnerDurationSeconds)
                 .actionDurationMillis(actionDurationMillis)
+                .workload(scenario.applyTo(buildWorkload()))
+                .scenario(scenario)
+                .seed(resolveSeed())
                 .showProgress(!dontShowProgress)
+                .maxResultRows(maxResultRows)
                 .build();
 
+        if (settings.getSliceCount() > 1 && strategy != Strategy.MAPPED && strategy != Strategy.REMOTE) {
+            throw new IllegalArgumentException("Only MAPPED and REMOTE dinners could be hosted by several processes");
+        }
+
         Dinner<?, ?> dinner = strategy.getInitiator().apply(settings);
         Thread shutdownHook = shutdownHook(dinner::abort);
 
@@ -78,6 +193,23 @@ public class DinnerApp implements Runnable {
         Runtime.getRuntime().removeShutdownHook(shutdownHook);
     }
 
+    private Workload buildWorkload() {
+        Workload.WorkloadBuilder workload = Workload.builder()
+                .eating(Distribution.parse(eatingDistribution, actionDurationMillis))
+                .thinking(Distribution.parse(thinkingDistribution, actionDurationMillis));
+
+        eatingDistributionBySeat.forEach((seatId, spec) -> workload.eatingAt(seatId, Distribution.parse(spec, actionDurationMillis)));
+        thinkingDistributionBySeat.forEach((seatId, spec) -> workload.thinkingAt(seatId, Distribution.parse(spec, actionDurationMillis)));
+
+        return workload.build();
+    }
+
+    private long resolveSeed() {
+        long resolvedSeed = seed != null ? seed : new SplittableRandom().nextLong();
+        log.info("Random seed: {}", resolvedSeed);
+        return resolvedSeed;
+    }
+
     private void tuneLogLevel() {
         if (verbosity == null || verbosity.length == 0) return;
         if (verbosity.length == 1) ROOT_LOGGER.setLevel(Level.DEBUG);
@@ -86,24 +218,119 @@ public class DinnerApp implements Runnable {
     }
 
     private static Thread shutdownHook(Runnable runnable) {
-        AnsiFormat format = new AnsiFormat(GREEN_TEXT(), RED_BACK(), BOLD());
-        String threadName = StringUtils.leftPad("Shutdown", Identity.MAX_LENGTH);
-
         Thread hook = new Thread(runnable);
-        hook.setName(format.format(threadName));
+        hook.setName(highlight("Shutdown", Ansi::shutdown));
         return hook;
     }
 
+    /**
+     * Redirected output of batch runs gets plain names
+     */
+    private static String highlight(String threadName, UnaryOperator<String> format) {
+        String paddedName = StringUtils.leftPad(threadName, Identity.MAX_LENGTH);
+        return System.console() != null ? format.apply(paddedName) : paddedName;
+    }
+
+    /**
+     * Isolates ANSI formatting, so JColor is loaded only for interactive console
+     */
+    private static class Ansi {
+
+        static String dinner(String text) {
+            return new AnsiFormat(RED_TEXT(), GREEN_BACK(), BOLD()).format(text);
+        }
+
+        static String shutdown(String text) {
+            return new AnsiFormat(GREEN_TEXT(), RED_BACK(), BOLD()).format(text);
+        }
+
+    }
+
 
     @Builder
     @Getter
     @RequiredArgsConstructor
     public static class Settings {
 
+        public static final int DEFAULT_MAX_RESULT_ROWS = 64;
+
         private final int seatCount;
+        private final int seatCapacity;
+        private final int churnMillis;
+        private final int watchdogMillis;
+        private final int intervalMillis;
+        private final Path intervalFile;
+        private final int segmentCount;
+        private final Path sharedTableFile;
+        private final int sliceIndex;
+        private final int sliceCount;
+        private final int port;
+        private final Remote.Grant grant;
+        private final int engineThreads;
+        private final int agingAttempts;
+        private final RetryPolicy retryPolicy;
         private final int durationSeconds;
         private final int actionDurationMillis;
+        private final Workload workload;
+        private final Scenario scenario;
+        private final long seed;
         private final boolean showProgress;
+        private final int maxResultRows;
+
+        public int getSeatCapacity() {
+            return Math.max(seatCapacity, seatCount);
+        }
+
+        public int getMaxResultRows() {
+            return maxResultRows > 0 ? maxResultRows : DEFAULT_MAX_RESULT_ROWS;
+        }
+
+        public int getSliceCount() {
+            return Math.max(sliceCount, 1);
+        }
+
+        /**
+         * @return true if philosopher at the seat is hosted by this process, seats are split into contiguous slices
+         */
+        public boolean hostsSeat(int seatId) {
+            return (int) ((long) seatId * getSliceCount() / seatCount) == sliceIndex;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the slice of this process could not be hosted
+         */
+        public void validateSlice() {
+            if (sliceIndex < 0 || sliceIndex >= getSliceCount() || getSliceCount() > seatCount) {
+                throw new IllegalArgumentException("Illegal slice " + sliceIndex + " of " + getSliceCount()
+                        + " for " + seatCount + " seats");
+            }
+        }
+
+        public int getHostedSeatCount() {
+            int hosted = 0;
+            for (int seatId = 0; seatId < seatCount; seatId++) {
+                if (hostsSeat(seatId)) {
+                    hosted++;
+                }
+            }
+            return hosted;
+        }
+
+        public Remote.Grant getGrant() {
+            return grant != null ? grant : Remote.Grant.QUEUE;
+        }
+
+        public RetryPolicy getRetryPolicy() {
+            return retryPolicy != null ? retryPolicy : RetryPolicy.THINK;
+        }
+
+        public Workload getWorkload() {
+            return workload != null ? workload : Workload.uniform(actionDurationMillis);
+        }
+
+        public Scenario getScenario() {
+            return scenario != null ? scenario : Scenario.none();
+        }
 
     }
 
@@ -16,12 +16,18 @@ public abstract class Fork {
     public static final int FREE_FLAG = -1024;
 
     protected final int id;
-    protected Identity leftUser;
-    protected Identity rightUser;
+    // Users could be changed by membership changes of the dinner
+    protected volatile Identity leftUser;
+    protected volatile Identity rightUser;
     protected final ForkTimeRecorder timeRecorder = new ForkTimeRecorder();
 
     protected volatile long takenTimestamp;
 
+    /**
+     * Non-zero for hot forks, that are held for a while by any user before actual releasing
+     */
+    protected long releaseDelayMillis = 0;
+
     public void setLeftUser(Identity leftUser) {
         this.leftUser = leftUser;
     }
@@ -30,10 +36,27 @@ public abstract class Fork {
         this.rightUser = rightUser;
     }
 
+    public void setReleaseDelayMillis(long releaseDelayMillis) {
+        this.releaseDelayMillis = releaseDelayMillis;
+    }
+
+    public long getReleaseDelayMillis() {
+        return releaseDelayMillis;
+    }
+
     public int getId() {
         return id;
     }
 
+    /**
+     * @return side of this fork relative to the given user
+     */
+    public Table.Side sideFor(Identity identity) {
+        if (identity == rightUser) return Table.Side.LEFT;
+        if (identity == leftUser) return Table.Side.RIGHT;
+        throw new IllegalArgumentException(identity + " is not able to use fork #" + id);
+    }
+
     public boolean isBusy() {
         return getHolderId() != FREE_FLAG;
     }
@@ -56,6 +79,8 @@ public abstract class Fork {
     protected abstract boolean take0(Identity identity);
 
     /**
+     * Hot fork is not delayed here, its holder waits before releasing, see {@link ThreadedPhilosopher#releaseForks()}
+     *
      * @param identity owner philosopher
      */
     public void release(Identity identity) {
@@ -83,6 +108,13 @@ public abstract class Fork {
      */
     protected abstract void release0(Identity identity);
 
+    /**
+     * @return consistent usage of the fork, could be taken during the dinner
+     */
+    public ForkTimeRecorder.Snapshot usageSnapshot() {
+        return timeRecorder.snapshot();
+    }
+
     public Result calculateResult() {
         return Result.from(this);
     }
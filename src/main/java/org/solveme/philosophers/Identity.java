@@ -2,27 +2,47 @@ package org.solveme.philosophers;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.stream.Stream;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
-public enum Identity {
-    ARISTOTLE,
-    PLATO,
-    SOCRATES,
-    DIOGEN,
-    DESCARTES,
-    KANT,
-    HEGEL
+/**
+ * Philosopher identity, which is bound to the seat. First seats are taken by famous philosophers,
+ * others are taken by guests named after their seats. Identities are interned, so they could be compared by reference.
+ */
+public final class Identity implements Comparable<Identity> {
 
-    //
-    ;
+    public static final Identity ARISTOTLE = new Identity(0, "Aristotle");
+    public static final Identity PLATO = new Identity(1, "Plato");
+    public static final Identity SOCRATES = new Identity(2, "Socrates");
+    public static final Identity DIOGEN = new Identity(3, "Diogen");
+    public static final Identity DESCARTES = new Identity(4, "Descartes");
+    public static final Identity KANT = new Identity(5, "Kant");
+    public static final Identity HEGEL = new Identity(6, "Hegel");
 
-    public static final int MAX_LENGTH = Stream.of(Identity.values())
+    public static final List<Identity> NAMED = Collections.unmodifiableList(Arrays.asList(
+            ARISTOTLE, PLATO, SOCRATES, DIOGEN, DESCARTES, KANT, HEGEL
+    ));
+
+    public static final int MAX_LENGTH = NAMED.stream()
             .max(Comparator.comparingInt(n -> n.toString().length()))
             .map(n -> n.toString().length())
             .orElse(12);
 
+    private static final ConcurrentMap<Integer, Identity> GUESTS = new ConcurrentHashMap<>();
+
+    private final int seatId;
+    private final String name;
+
+    private Identity(int seatId, String name) {
+        this.seatId = seatId;
+        this.name = name;
+    }
+
     public static String padName(Identity name) {
         return StringUtils.leftPad(name.toString(), MAX_LENGTH);
     }
@@ -32,17 +52,27 @@ public enum Identity {
      * @return philosopher identity
      */
     public static Identity at(int seatId) {
-        return Identity.values()[seatId];
+        if (seatId < 0) {
+            throw new IllegalArgumentException("Illegal seatId " + seatId);
+        }
+
+        return seatId < NAMED.size()
+                ? NAMED.get(seatId)
+                : GUESTS.computeIfAbsent(seatId, id -> new Identity(id, "P" + id));
     }
 
     public int getSeatId() {
-        return ordinal();
+        return seatId;
+    }
+
+    @Override
+    public int compareTo(Identity other) {
+        return Integer.compare(seatId, other.seatId);
     }
 
     @Override
     public String toString() {
-        String name = name().toLowerCase();
-        return name.substring(0, 1).toUpperCase() + name.substring(1);
+        return name;
     }
 
     public String padded() {
@@ -0,0 +1,219 @@
+package org.solveme.philosophers;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.recorders.LatencyHistogram;
+import org.solveme.philosophers.recorders.LiveRecorder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Splits the dinner into intervals of fixed length and keeps statistics of each interval: throughput, hunger and
+ * acquiring latency percentiles and eating utilization. Recent intervals are kept in a bounded ring buffer for results,
+ * all of them could be streamed into a CSV file during the dinner, so degradation during long runs is visible.
+ */
+@Slf4j
+public class IntervalSampler implements Runnable {
+
+    /**
+     * An hour of one-second intervals
+     */
+    public static final int CAPACITY = 3600;
+
+    private static final String CSV_HEADER = "start_ms,duration_ms,meals,meals_per_s,hunger_p50_ms,hunger_p90_ms,"
+            + "hunger_p99_ms,hunger_max_ms,attempts,attempt_p50_ms,attempt_p99_ms,utilization_pct";
+
+    private final Dinner<?, ?> dinner;
+    private final long intervalMillis;
+    private final Path file;
+    private final Thread thread;
+
+    private final Interval[] ring = new Interval[CAPACITY];
+    private long recorded = 0;
+
+    private BufferedWriter writer;
+
+    public IntervalSampler(Dinner<?, ?> dinner, long intervalMillis, Path file) {
+        this.dinner = dinner;
+        this.intervalMillis = intervalMillis;
+        this.file = file;
+        this.thread = new Thread(this, StringUtils.leftPad("Sampler", Identity.MAX_LENGTH));
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void stop() {
+        thread.interrupt();
+        try {
+            thread.join();
+
+        } catch (InterruptedException e) {
+            log.debug("Interrupted while waiting for sampler to stop");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        openFile();
+
+        long startNanos = System.nanoTime();
+        LiveRecorder.Snapshot previous = dinner.getLiveRecorder().snapshot();
+        long previousEatingNanos = dinner.getConcurrencyRecorder().getEatingNanos();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(intervalMillis);
+
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            LiveRecorder.Snapshot current = dinner.getLiveRecorder().snapshot();
+            long currentEatingNanos = dinner.getConcurrencyRecorder().getEatingNanos();
+            record(Interval.between(previous, current, currentEatingNanos - previousEatingNanos, startNanos, dinner.getTable().getSize()));
+            previous = current;
+            previousEatingNanos = currentEatingNanos;
+        }
+
+        closeFile();
+    }
+
+    private synchronized void record(Interval interval) {
+        ring[(int) (recorded % CAPACITY)] = interval;
+        recorded++;
+
+        if (writer != null) {
+            try {
+                writer.write(interval.toCsv());
+                writer.newLine();
+                writer.flush();
+
+            } catch (IOException e) {
+                log.warn("Unable to write interval statistics into {}, writing is stopped", file, e);
+                closeFile();
+            }
+        }
+    }
+
+    /**
+     * @return recorded intervals, which are still kept in the buffer, in chronological order
+     */
+    public synchronized List<Interval> getIntervals() {
+        List<Interval> intervals = new ArrayList<>();
+        for (long i = Math.max(0, recorded - CAPACITY); i < recorded; i++) {
+            intervals.add(ring[(int) (i % CAPACITY)]);
+        }
+        return intervals;
+    }
+
+    private void openFile() {
+        if (file == null) {
+            return;
+        }
+
+        try {
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write(CSV_HEADER);
+            writer.newLine();
+            log.info("Interval statistics are written into {}", file);
+
+        } catch (IOException e) {
+            log.warn("Unable to open {} for interval statistics", file, e);
+            writer = null;
+        }
+    }
+
+    private synchronized void closeFile() {
+        if (writer == null) {
+            return;
+        }
+
+        try {
+            writer.close();
+
+        } catch (IOException e) {
+            log.warn("Unable to close {}", file, e);
+        }
+        writer = null;
+    }
+
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Interval {
+
+        private final long startMillis;
+        private final long durationMillis;
+        private final long meals;
+        private final long hungerP50Nanos;
+        private final long hungerP90Nanos;
+        private final long hungerP99Nanos;
+        private final long hungerMaxNanos;
+        private final long attempts;
+        private final long attemptP50Nanos;
+        private final long attemptP99Nanos;
+
+        /**
+         * Average amount of eating philosophers as a share of floor(n/2), meals in progress are accounted
+         * by their elapsed part, so long meals are spread over all intervals they span
+         */
+        private final double utilization;
+
+        /**
+         * @param eatingNanos eating time of all philosophers within the interval
+         */
+        static Interval between(LiveRecorder.Snapshot previous,
+                                LiveRecorder.Snapshot current,
+                                long eatingNanos,
+                                long startNanos,
+                                int seated
+        ) {
+            long durationNanos = Math.max(1, current.getTakenNanos() - previous.getTakenNanos());
+            LatencyHistogram.Snapshot hunger = current.getHunger().minus(previous.getHunger());
+            LatencyHistogram.Snapshot attempts = current.getAttempts().minus(previous.getAttempts());
+            double eaters = (double) eatingNanos / durationNanos;
+
+            return new Interval(
+                    TimeUnit.NANOSECONDS.toMillis(previous.getTakenNanos() - startNanos),
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                    current.getMeals() - previous.getMeals(),
+                    hunger.getPercentile(0.5),
+                    hunger.getPercentile(0.9),
+                    hunger.getPercentile(0.99),
+                    hunger.getMax(),
+                    attempts.getCount(),
+                    attempts.getPercentile(0.5),
+                    attempts.getPercentile(0.99),
+                    eaters / Math.max(1, seated / 2)
+            );
+        }
+
+        public double getMealsPerSecond() {
+            return durationMillis == 0 ? 0 : meals * 1000D / durationMillis;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%d,%.3f,%.3f,%.1f",
+                    startMillis, durationMillis, meals, getMealsPerSecond(),
+                    hungerP50Nanos / 1e6, hungerP90Nanos / 1e6, hungerP99Nanos / 1e6, hungerMaxNanos / 1e6,
+                    attempts, attemptP50Nanos / 1e6, attemptP99Nanos / 1e6, utilization * 100);
+        }
+
+    }
+
+}
@@ -6,26 +6,58 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.solveme.philosophers.recorders.PhilosopherTimeRecorder;
+import org.solveme.philosophers.workload.Workload;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
 
 
+/**
+ * State of philosopher at the table, which doesn't depend on the way philosopher is driven: identity, forks,
+ * workload and recorders. See {@link ThreadedPhilosopher} for philosophers, which run within their own threads.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public abstract class Philosopher<F extends Fork, P extends Philosopher<F, P>> extends RunnerAccessible {
 
     protected final Dinner<F, P> dinner;
     protected final Identity identity;
     protected final F leftFork;
-    protected final F rightFork;
 
+    /**
+     * Right fork could be switched by {@link Rewiring} when right neighbour joins or leaves the dinner
+     */
+    protected F rightFork;
+    private volatile Rewiring<F> pendingRewiring;
+
+    /**
+     * Philosopher-local generator, should be used only by the one, who drives philosopher at the moment
+     */
+    protected final SplittableRandom random;
+    private final LongSupplier eatingDurations;
+    private final LongSupplier thinkingDurations;
+
+    /**
+     * Thread of philosopher, null if philosopher is driven by the dinner itself
+     */
     @Setter
     @Getter
     protected Runner runner;
 
     @Getter
-    private final PhilosopherTimeRecorder timeRecorder = new PhilosopherTimeRecorder();
+    protected final PhilosopherTimeRecorder timeRecorder = new PhilosopherTimeRecorder();
+
+    public Philosopher(Dinner<F, P> dinner, Identity identity, F leftFork, F rightFork) {
+        this.dinner = dinner;
+        this.identity = identity;
+        this.leftFork = leftFork;
+        this.rightFork = rightFork;
+        this.random = dinner.splitRandom();
+
+        Workload workload = dinner.settings.getWorkload();
+        this.eatingDurations = workload.eatingFor(identity.getSeatId()).sampler(random);
+        this.thinkingDurations = workload.thinkingFor(identity.getSeatId()).sampler(random);
+    }
 
     public Philosopher(Dinner<F, P> dinner, Identity identity) {
         this(dinner, identity, dinner.getLeftForkOf(identity), dinner.getRightForkOf(identity));
@@ -41,118 +73,57 @@ public abstract class Philosopher<F extends Fork, P extends Philosopher<F, P>> e
         return getIdentity().getSeatId();
     }
 
-    public Result run() {
-        timeRecorder.getTotalDuration().addActionDuration(this::takeDinner);
-        return Result.from(identity, timeRecorder);
-    }
-
-    public void takeDinner() {
-        while (!isShutdown()) {
-            act();
-        }
-
-        log.info(identity + " finished the dinner");
-    }
-
-    public void act() {
-        if (acquireForks()) {
-            eat();
-            releaseForks();
-        }
-
-        // Philosopher should spend some time on thinking even after successful eating
-        // to allow other philosophers to eat some food
-        think();
-    }
-
-    public void interrupt() {
-        runner.interrupt();
-    }
-
-    private void logWithThreadStatus(String message) {
-        assert runner == Runner.currentRunner();
-        log.trace(message + ", interrupted: {}", runner.isInterrupted());
-    }
-
-    protected boolean acquireForks() {
-        if (isShutdown()) {
-            log.info("Skip fork acquiring due to shutdown");
-            return false;
-        }
-        logWithThreadStatus("Acquire forks");
-        long acquiringStart = System.nanoTime();
-        boolean acquiringResult = acquireForks0();
-        timeRecorder.getForkAccessDuration().addSpentNanosFrom(acquiringStart);
-
-        return acquiringResult;
-    }
-
-    protected abstract boolean acquireForks0();
+    /**
+     * Runs the whole dinner of philosopher and blocks the calling thread until philosopher has finished it
+     */
+    public abstract Result run();
 
-    protected void releaseForks() {
-        logWithThreadStatus("Release forks");
-        timeRecorder.getForkAccessDuration().addActionDuration(this::releaseForks0);
+    /**
+     * Asks philosopher to switch its right fork at the next safe point
+     */
+    public void requestRewiring(Rewiring<F> rewiring) {
+        pendingRewiring = rewiring;
     }
 
-    protected abstract void releaseForks0();
-
-    protected void eat() {
-        if (isShutdown()) {
-            log.info("Skip eating due to shutdown");
+    /**
+     * Should be called only when philosopher holds no forks, so it's safe to switch them
+     */
+    protected void applyRewiring() {
+        Rewiring<F> rewiring = pendingRewiring;
+        if (rewiring == null) {
             return;
         }
-        logWithThreadStatus("Started to eat");
-        timeRecorder.getEatingDuration().addActionDuration(this::eat0);
-    }
-
-    protected void eat0() {
-        try {
-            TimeUnit.MILLISECONDS.sleep(calculateActionDurationMillis());
-
-        } catch (InterruptedException e) {
-            logActionInterruption("eating");
-            onEatingInterruption(isShutdown());
-        }
-    }
 
-    protected void onEatingInterruption(boolean isShutdown) {
-        // no-op
-    }
-
-    protected void think() {
-        if (isShutdown()) {
-            log.info("Skip thinking due to shutdown");
+        pendingRewiring = null;
+        if (!rewiring.begin()) {
+            log.debug("{} skips cancelled rewiring", identity);
             return;
         }
-        logWithThreadStatus("Started to think");
-        timeRecorder.getThinkingDuration().addActionDuration(this::think0);
-    }
 
-    protected void think0() {
-        try {
-            TimeUnit.MILLISECONDS.sleep(calculateActionDurationMillis());
+        F previousRightFork = rightFork;
+        rightFork = rewiring.getRightFork();
+        rightFork.setLeftUser(identity);
+        log.debug("{} switched right fork from #{} to #{}", identity, previousRightFork.getId(), rightFork.getId());
 
-        } catch (InterruptedException e) {
-            logActionInterruption("thinking");
-            onThinkingInterruption(isShutdown());
-        }
+        onRewired(previousRightFork);
+        rewiring.complete();
     }
 
-    protected void onThinkingInterruption(boolean isShutdown) {
+    /**
+     * Called after right fork was switched, within the same thread, which applies rewiring
+     *
+     * @param previousRightFork fork, that is not used by philosopher anymore
+     */
+    protected void onRewired(F previousRightFork) {
         // no-op
     }
 
-    protected void logActionInterruption(String performedAction) {
-        if (isShutdown()) {
-            log.info("{} was asked to stop {} due shutdown", identity, performedAction);
-
-        } else {
-            log.trace("{} was asked to stop {}", identity, performedAction);
-        }
+    protected long calculateEatingDurationMillis() {
+        return eatingDurations.getAsLong();
     }
 
-    protected long calculateActionDurationMillis() {
-        return dinner.settings.getActionDurationMillis() + (long) (Math.random() * dinner.settings.getActionDurationMillis());
+    protected long calculateThinkingDurationMillis() {
+        return thinkingDurations.getAsLong();
     }
 
     public F getLeftFork() {
@@ -183,6 +154,14 @@ public abstract class Philosopher<F extends Fork, P extends Philosopher<F, P>> e
         private final Duration thinkingDuration;
         private final Duration forkAccessDuration;
         private final Duration idleDuration;
+        private final long meals;
+        private final long acquireAttempts;
+        private final long retries;
+        private final Duration hungerDuration;
+        private final Duration maxHungerDuration;
+        private final long rebalancingMeals;
+        private final Duration rebalancingHungerDuration;
+        private final long startNanos;
 
         public static Result from(Identity identity, PhilosopherTimeRecorder timeRecorder) {
             return new Result(
@@ -191,10 +170,26 @@ public abstract class Philosopher<F extends Fork, P extends Philosopher<F, P>> e
                     timeRecorder.getEatingDuration().toDuration(),
                     timeRecorder.getThinkingDuration().toDuration(),
                     timeRecorder.getForkAccessDuration().toDuration(),
-                    timeRecorder.getIdleDuration()
+                    timeRecorder.getIdleDuration(),
+                    timeRecorder.getMeals(),
+                    timeRecorder.getAcquireAttempts(),
+                    timeRecorder.getRetries(),
+                    timeRecorder.getHungerDuration(),
+                    timeRecorder.getMaxHungerDuration(),
+                    timeRecorder.getRebalancingMeals(),
+                    timeRecorder.getRebalancingHungerDuration(),
+                    timeRecorder.getStartNanos()
             );
         }
 
+        public Duration getMeanHungerDuration() {
+            return meals == 0 ? Duration.ZERO : hungerDuration.dividedBy(meals);
+        }
+
+        public Duration getMeanRebalancingHungerDuration() {
+            return rebalancingMeals == 0 ? Duration.ZERO : rebalancingHungerDuration.dividedBy(rebalancingMeals);
+        }
+
         @Override
         public int compareTo(Result other) {
             return identity.compareTo(other.getIdentity());
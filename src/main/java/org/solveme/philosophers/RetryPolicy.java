@@ -0,0 +1,86 @@
+package org.solveme.philosophers;
+
+import java.util.SplittableRandom;
+
+
+/**
+ * What philosopher does after a failed attempt to acquire forks. Delays are measured in units of the action
+ * duration factor, so they are comparable with eating and thinking.
+ */
+public enum RetryPolicy {
+
+    /**
+     * Thinks as after eating, so the next attempt happens a full thinking later
+     */
+    THINK {
+        @Override
+        public long delayNanos(int failures, double contention, long unitNanos, SplittableRandom random) {
+            return THINK_AGAIN;
+        }
+    },
+
+    /**
+     * Retries right away, only yields the processor
+     */
+    IMMEDIATE {
+        @Override
+        public long delayNanos(int failures, double contention, long unitNanos, SplittableRandom random) {
+            return 0;
+        }
+    },
+
+    /**
+     * Bounded exponential backoff with full jitter: the ceiling doubles with each failure in a row up to a unit,
+     * and the delay is drawn uniformly below it, so neighbours don't retry in lockstep
+     */
+    BACKOFF {
+        @Override
+        public long delayNanos(int failures, double contention, long unitNanos, SplittableRandom random) {
+            long ceiling = Math.min(unitNanos, (unitNanos / BACKOFF_DIVISOR) << Math.min(failures - 1, MAX_SHIFT));
+            return ceiling > 0 ? random.nextLong(ceiling + 1) : 0;
+        }
+    },
+
+    /**
+     * Delay is proportional to the estimated share of failed attempts, so philosopher retries almost at once
+     * when forks are mostly free and waits for about a meal when they are mostly busy. Half of the delay is jitter.
+     */
+    ADAPTIVE {
+        @Override
+        public long delayNanos(int failures, double contention, long unitNanos, SplittableRandom random) {
+            long ceiling = (long) (contention * unitNanos);
+            return ceiling > 1 ? ceiling / 2 + random.nextLong(ceiling / 2 + 1) : 0;
+        }
+    },
+    ;
+
+    public static final long THINK_AGAIN = -1;
+
+    /**
+     * The first backoff is 1/32 of a unit, it reaches the whole unit after 6 failures in a row
+     */
+    private static final long BACKOFF_DIVISOR = 32;
+    private static final int MAX_SHIFT = 5;
+
+    /**
+     * Weight of the latest attempt in the contention estimate
+     */
+    private static final double CONTENTION_WEIGHT = 0.125;
+
+    /**
+     * @param failures   failed attempts in a row, at least one
+     * @param contention estimated share of failed attempts, see {@link #estimateContention(double, boolean)}
+     * @param unitNanos  action duration factor
+     * @param random     philosopher-local generator
+     * @return pause before the next attempt, or {@link #THINK_AGAIN}
+     */
+    public abstract long delayNanos(int failures, double contention, long unitNanos, SplittableRandom random);
+
+    /**
+     * Exponentially weighted moving average of attempt failures
+     */
+    public static double estimateContention(double contention, boolean failed) {
+        return contention + ((failed ? 1 : 0) - contention) * CONTENTION_WEIGHT;
+    }
+
+}
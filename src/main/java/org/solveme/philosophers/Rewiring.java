@@ -0,0 +1,93 @@
+package org.solveme.philosophers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Request for philosopher to switch its right fork. Request is posted by the dinner during membership change
+ * and is applied by the philosopher itself at a safe point, when it holds no forks, so strategies never
+ * observe a fork being replaced in the middle of acquiring or eating.
+ * <p>
+ * Request could be cancelled only until philosopher started to apply it.
+ */
+@Slf4j
+public class Rewiring<F extends Fork> {
+
+    private static final int PENDING = 0;
+    private static final int APPLYING = 1;
+    private static final int CANCELLED = 2;
+
+    private final F rightFork;
+    private final Runnable followUp;
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private final CountDownLatch applied = new CountDownLatch(1);
+
+    /**
+     * @param rightFork new right fork of philosopher
+     * @param followUp  action to perform within philosopher thread right after switching forks
+     */
+    public Rewiring(F rightFork, Runnable followUp) {
+        this.rightFork = rightFork;
+        this.followUp = followUp;
+    }
+
+    public F getRightFork() {
+        return rightFork;
+    }
+
+    /**
+     * @return false if request was cancelled and should be ignored
+     */
+    boolean begin() {
+        return state.compareAndSet(PENDING, APPLYING);
+    }
+
+    void complete() {
+        try {
+            followUp.run();
+        } finally {
+            applied.countDown();
+        }
+    }
+
+    /**
+     * Waits until philosopher applies the request. In case of interruption tries to cancel the request,
+     * if philosopher has already started to apply it, waits for completion anyway.
+     *
+     * @return true if request was applied, false if it was cancelled
+     */
+    public boolean await() {
+        try {
+            applied.await();
+            return true;
+
+        } catch (InterruptedException e) {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                log.debug("Rewiring to fork #{} was cancelled", rightFork.getId());
+                Thread.currentThread().interrupt();
+                return false;
+            }
+
+            log.debug("Rewiring to fork #{} is in progress, wait for it anyway", rightFork.getId());
+            awaitUninterruptibly();
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    private void awaitUninterruptibly() {
+        while (true) {
+            try {
+                applied.await();
+                return;
+
+            } catch (InterruptedException e) {
+                log.trace("Ignore interruption until rewiring to fork #{} is applied", rightFork.getId());
+            }
+        }
+    }
+
+}
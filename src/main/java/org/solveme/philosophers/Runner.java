@@ -2,11 +2,17 @@ package org.solveme.philosophers;
 
 public class Runner extends Thread {
 
+    private final ShutdownEpoch shutdownEpoch;
+
+    /**
+     * Shutdown of this runner only, e.g. when philosopher leaves the running dinner
+     */
     private volatile boolean shutdown = false;
     private volatile boolean graceful = false;
 
-    public Runner(Runnable target) {
+    public Runner(Runnable target, ShutdownEpoch shutdownEpoch) {
         super(target);
+        this.shutdownEpoch = shutdownEpoch;
     }
 
     public static Runner currentRunner() {
@@ -22,11 +28,11 @@ public class Runner extends Thread {
     }
 
     public boolean isShutdown() {
-        return shutdown;
+        return shutdown || shutdownEpoch.isBroadcast();
     }
 
     public boolean isGraceful() {
-        return graceful;
+        return shutdown ? graceful : shutdownEpoch.isGraceful();
     }
 
 }
@@ -0,0 +1,54 @@
+package org.solveme.philosophers;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Dinner-wide shutdown, shared by all runners of the dinner. It's published by a single write, so everybody,
+ * who is not blocked, observes it at the next check without being interrupted one by one.
+ */
+public class ShutdownEpoch {
+
+    /**
+     * Null while the dinner is running. Moment and gracefulness are published together, so whoever observes
+     * the broadcast observes gracefulness of the winning one
+     */
+    private final AtomicReference<Broadcast> broadcast = new AtomicReference<>();
+
+    /**
+     * @return false if shutdown was already broadcast, then gracefulness of the earlier one is kept
+     */
+    public boolean broadcast(boolean graceful) {
+        return broadcast.compareAndSet(null, new Broadcast(System.nanoTime(), graceful));
+    }
+
+    public boolean isBroadcast() {
+        return broadcast.get() != null;
+    }
+
+    public boolean isGraceful() {
+        Broadcast current = broadcast.get();
+        return current != null && current.graceful;
+    }
+
+    /**
+     * @return when shutdown was broadcast, zero while the dinner is running
+     */
+    public long getBroadcastNanos() {
+        Broadcast current = broadcast.get();
+        return current != null ? current.nanos : 0;
+    }
+
+    private static class Broadcast {
+
+        private final long nanos;
+        private final boolean graceful;
+
+        Broadcast(long nanos, boolean graceful) {
+            this.nanos = nanos;
+            this.graceful = graceful;
+        }
+
+    }
+
+}
@@ -0,0 +1,175 @@
+package org.solveme.philosophers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Start barrier for a large amount of parties. Unlike {@link java.util.concurrent.CyclicBarrier} it has no lock,
+ * which every party has to reacquire after wake-up:
+ * <ul>
+ *     <li>each party takes an arrival slot and parks, the last one wakes up the opener</li>
+ *     <li>the opener publishes a start epoch slightly in the future and wakes up the party of the first slot</li>
+ *     <li>woken up party wakes up parties of two child slots, so the whole tree is woken up in logarithmic steps</li>
+ *     <li>everybody parks until the epoch is close and spins for the rest, thus all parties start at the same moment</li>
+ * </ul>
+ * The gate is single-use, interruption of anybody cancels it for all, as a broken barrier does.
+ */
+@Slf4j
+public class StartGate {
+
+    private static final long CLOSED = 0;
+    private static final long CANCELLED = -1;
+
+    /**
+     * Time for each level of the wake-up tree to pass the signal down
+     */
+    private static final long LEAD_PER_LEVEL_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long MIN_LEAD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Parties park until the epoch is that close, and spin after that
+     */
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final int parties;
+    private final AtomicInteger arrived = new AtomicInteger();
+    private final AtomicReferenceArray<Thread> waiters;
+    private volatile Thread opener;
+
+    private final AtomicLong startNanos = new AtomicLong(CLOSED);
+
+    private final LongAccumulator firstStartNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator lastStartNanos = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public StartGate(int parties) {
+        this.parties = parties;
+        this.waiters = new AtomicReferenceArray<>(parties);
+    }
+
+    /**
+     * Called by each party
+     *
+     * @return false if the gate was cancelled
+     */
+    public boolean arriveAndAwait() {
+        int slot = arrived.getAndIncrement();
+        waiters.set(slot, Thread.currentThread());
+        if (slot == parties - 1) {
+            LockSupport.unpark(opener);
+        }
+
+        while (startNanos.get() == CLOSED) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                cancel();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        wakeUpChildrenOf(slot);
+        return awaitEpoch();
+    }
+
+    /**
+     * Called by the only opener, when all parties have arrived
+     *
+     * @return false if the gate was cancelled
+     */
+    public boolean awaitAndOpen() {
+        opener = Thread.currentThread();
+        while (arrived.get() < parties && startNanos.get() == CLOSED) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                cancel();
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        int levels = Integer.SIZE - Integer.numberOfLeadingZeros(parties);
+        long epoch = System.nanoTime() + Math.max(MIN_LEAD_NANOS, levels * LEAD_PER_LEVEL_NANOS);
+        if (!startNanos.compareAndSet(CLOSED, epoch)) {
+            return false;
+        }
+
+        wakeUp(0);
+        return awaitEpoch();
+    }
+
+    private void cancel() {
+        if (startNanos.compareAndSet(CLOSED, CANCELLED)) {
+            log.debug("Start gate is cancelled");
+            wakeUp(0);
+            LockSupport.unpark(opener);
+        }
+    }
+
+    private boolean awaitEpoch() {
+        long epoch = startNanos.get();
+        if (epoch == CANCELLED) {
+            return false;
+        }
+
+        long remaining;
+        while ((remaining = epoch - System.nanoTime()) > 0) {
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(this, remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+
+        long now = System.nanoTime();
+        firstStartNanos.accumulate(now);
+        lastStartNanos.accumulate(now);
+        return true;
+    }
+
+    private void wakeUpChildrenOf(int slot) {
+        wakeUp(2 * slot + 1);
+        wakeUp(2 * slot + 2);
+    }
+
+    /**
+     * Parties, who have not parked yet, keep the permit, so they are never stuck
+     */
+    private void wakeUp(int slot) {
+        if (slot < parties) {
+            LockSupport.unpark(waiters.get(slot));
+        }
+    }
+
+    /**
+     * @return start epoch, or zero if the gate was not opened
+     */
+    public long getStartNanos() {
+        long epoch = startNanos.get();
+        return epoch == CANCELLED ? CLOSED : epoch;
+    }
+
+    /**
+     * @return time between the first and the last party has passed the gate, including the opener
+     */
+    public long getStartSkewNanos() {
+        long first = firstStartNanos.get();
+        long last = lastStartNanos.get();
+        return first <= last ? last - first : 0;
+    }
+
+    /**
+     * @return how late the last party has passed the gate after the epoch
+     */
+    public long getLatenessNanos() {
+        long epoch = getStartNanos();
+        long last = lastStartNanos.get();
+        return epoch != CLOSED && last >= epoch ? last - epoch : 0;
+    }
+
+}
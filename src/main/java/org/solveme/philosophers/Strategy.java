@@ -2,10 +2,20 @@ package org.solveme.philosophers;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.solveme.philosophers.strategies.Actor;
+import org.solveme.philosophers.strategies.Arbiter;
+import org.solveme.philosophers.strategies.Async;
 import org.solveme.philosophers.strategies.Atomic;
 import org.solveme.philosophers.strategies.Managed;
+import org.solveme.philosophers.strategies.Mapped;
 import org.solveme.philosophers.strategies.Notify;
+import org.solveme.philosophers.strategies.Packed;
+import org.solveme.philosophers.strategies.Remote;
+import org.solveme.philosophers.strategies.Rounds;
+import org.solveme.philosophers.strategies.Segmented;
+import org.solveme.philosophers.strategies.Signal;
 import org.solveme.philosophers.strategies.Synchronized;
+import org.solveme.philosophers.strategies.Transactional;
 
 import java.util.function.Function;
 
@@ -17,6 +27,16 @@ public enum Strategy {
     ATOMIC(Atomic::new),
     NOTIFY(Notify::new),
     MANAGED(Managed::new),
+    ARBITER(Arbiter::new),
+    ROUNDS(Rounds::new),
+    SIGNAL(Signal::new),
+    PACKED(Packed::new),
+    SEGMENTED(Segmented::new),
+    MAPPED(Mapped::new),
+    REMOTE(Remote::new),
+    ASYNC(Async::new),
+    ACTOR(Actor::new),
+    TRANSACTIONAL(Transactional::new),
 
     //
     ;
@@ -1,65 +1,212 @@
 package org.solveme.philosophers;
 
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import javax.annotation.Nonnull;
+import java.util.BitSet;
 import java.util.function.ToIntFunction;
 
 import static org.solveme.philosophers.Table.Side.LEFT;
 import static org.solveme.philosophers.Table.Side.RIGHT;
 
 /**
- * Class to handle neighbourhood and seatId/fordId resolving
+ * Class to handle neighbourhood and seatId/fordId resolving.
+ * <p>
+ * Table has fixed capacity, but seats could be taken and freed during the dinner. Taken seats form a ring ordered
+ * by seatId, so the neighbours of a seat are the nearest taken seats. Each fork belongs to the seat at its right side,
+ * thus the fork id is always equal to the seatId of philosopher, for whom this fork is the left one.
  */
-@RequiredArgsConstructor
 public class Table {
 
-    private final int size;
+    @Getter
+    private final int capacity;
+    private final BitSet seated;
+    private final int[] leftNeighbours;
+    private final int[] rightNeighbours;
+    private int size;
 
-    public int getLeftNeighbour(int seatId) {
-        return normalizeSeatId(LEFT.neighbourOf(seatId));
+    public Table(int size) {
+        this(size, size);
     }
 
-    public int getRightNeighbour(int seatId) {
-        return normalizeSeatId(RIGHT.neighbourOf(seatId));
+    /**
+     * @param capacity maximum amount of seats
+     * @param size     amount of initially taken seats (starting from the first one)
+     */
+    public Table(int capacity, int size) {
+        if (size < 2 || size > capacity) {
+            throw new IllegalArgumentException("Illegal table size " + size + " for capacity " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.size = size;
+        this.seated = new BitSet(capacity);
+        this.leftNeighbours = new int[capacity];
+        this.rightNeighbours = new int[capacity];
+
+        seated.set(0, size);
+        for (int seatId = 0; seatId < size; seatId++) {
+            leftNeighbours[seatId] = normalizeSeatId(LEFT.neighbourOf(seatId), size);
+            rightNeighbours[seatId] = normalizeSeatId(RIGHT.neighbourOf(seatId), size);
+        }
+    }
+
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public synchronized boolean isSeated(int seatId) {
+        return seated.get(validateSeatId(seatId));
+    }
+
+    public synchronized int getLeftNeighbour(int seatId) {
+        return leftNeighbours[requireSeated(seatId)];
+    }
+
+    public synchronized int getRightNeighbour(int seatId) {
+        return rightNeighbours[requireSeated(seatId)];
     }
 
     public int leftForkIdFor(int seatId) {
-        return normalizeSeatId(LEFT.forkIdOf(seatId));
+        return LEFT.forkIdOf(validateSeatId(seatId));
     }
 
-    public int rightForkIdFor(int seatId) {
-        return normalizeSeatId(RIGHT.forkIdOf(seatId));
+    public synchronized int rightForkIdFor(int seatId) {
+        return LEFT.forkIdOf(getRightNeighbour(seatId));
     }
 
     @Nonnull
     public Side sideOfNearFork(int forkId, Identity philosopher) {
-        if (normalizeSeatId(LEFT.forkIdOf(philosopher)) == forkId) return LEFT;
-        if (normalizeSeatId(RIGHT.forkIdOf(philosopher)) == forkId) return RIGHT;
+        if (leftForkIdFor(philosopher.getSeatId()) == forkId) return LEFT;
+        if (rightForkIdFor(philosopher.getSeatId()) == forkId) return RIGHT;
         throw new RuntimeException(philosopher + " attempts to get side of non-near fork #" + forkId);
     }
 
+    /**
+     * Unlike {@link #getLeftNeighbour(int)} the seat itself could be vacant, e.g. its philosopher has left the table
+     *
+     * @return nearest taken seat at the left side of the given one
+     */
+    public synchronized int nearestLeftSeat(int seatId) {
+        int left = seated.nextSetBit(validateSeatId(seatId) + 1);
+        return left >= 0 ? left : seated.nextSetBit(0);
+    }
+
+    /**
+     * Unlike {@link #getRightNeighbour(int)} the seat itself could be vacant, e.g. its philosopher has left the table
+     *
+     * @return nearest taken seat at the right side of the given one
+     */
+    public synchronized int nearestRightSeat(int seatId) {
+        int right = seated.previousSetBit(validateSeatId(seatId) - 1);
+        return right >= 0 ? right : seated.previousSetBit(capacity - 1);
+    }
+
+    /**
+     * @return first taken seat starting from the given one (in cyclic order), or -1 if there is no such seat
+     */
+    public synchronized int nextTakenSeat(int fromSeatId) {
+        int seatId = seated.nextSetBit(validateSeatId(fromSeatId));
+        return seatId >= 0 ? seatId : seated.nextSetBit(0);
+    }
+
+    /**
+     * @return first vacant seat starting from the given one (in cyclic order), or -1 if there is no such seat
+     */
+    public synchronized int nextVacantSeat(int fromSeatId) {
+        int seatId = seated.nextClearBit(validateSeatId(fromSeatId));
+        seatId = seatId < capacity ? seatId : seated.nextClearBit(0);
+        return seatId < capacity ? seatId : -1;
+    }
+
+    /**
+     * Puts philosopher between nearest taken seats
+     *
+     * @return neighbourhood of the taken seat
+     */
+    public synchronized Neighbourhood seat(int seatId) {
+        if (seated.get(validateSeatId(seatId))) {
+            throw new IllegalStateException("Seat " + seatId + " is already taken");
+        }
+
+        int left = seated.nextSetBit(seatId);
+        left = left < 0 ? seated.nextSetBit(0) : left;
+        int right = seated.previousSetBit(seatId);
+        right = right < 0 ? seated.previousSetBit(capacity - 1) : right;
+
+        seated.set(seatId);
+        leftNeighbours[seatId] = left;
+        rightNeighbours[seatId] = right;
+        rightNeighbours[left] = seatId;
+        leftNeighbours[right] = seatId;
+        size++;
+
+        return new Neighbourhood(left, seatId, right);
+    }
+
+    /**
+     * Frees the seat, so its neighbours become neighbours of each other
+     *
+     * @return neighbourhood of the freed seat
+     */
+    public synchronized Neighbourhood unseat(int seatId) {
+        requireSeated(seatId);
+        if (size <= 2) {
+            throw new IllegalStateException("At least two philosophers should stay at the table");
+        }
+
+        int left = leftNeighbours[seatId];
+        int right = rightNeighbours[seatId];
+
+        seated.clear(seatId);
+        rightNeighbours[left] = right;
+        leftNeighbours[right] = left;
+        size--;
+
+        return new Neighbourhood(left, seatId, right);
+    }
+
     public int normalizeSeatId(int seatId) {
-        return normalizeSeatId(seatId, size);
+        return normalizeSeatId(seatId, capacity);
     }
 
     public int validateSeatId(int seatId) {
-        if (seatId < -1 || seatId > size) {
+        if (seatId < 0 || seatId >= capacity) {
             throw new IllegalArgumentException("Illegal seatId " + seatId);
         }
 
         return seatId;
     }
 
-    public int normalizeSeatId(int seatId, int total) {
-        int normalizedSeatId = validateSeatId(seatId) % total;
+    public static int normalizeSeatId(int seatId, int total) {
+        int normalizedSeatId = seatId % total;
 
         return normalizedSeatId < 0
                 ? total + normalizedSeatId
                 : normalizedSeatId;
     }
 
+    private int requireSeated(int seatId) {
+        if (!seated.get(validateSeatId(seatId))) {
+            throw new IllegalStateException("Seat " + seatId + " is not taken");
+        }
+
+        return seatId;
+    }
+
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Neighbourhood {
+
+        private final int leftNeighbour;
+        private final int seatId;
+        private final int rightNeighbour;
+
+    }
+
 
     @RequiredArgsConstructor
     public enum Side {
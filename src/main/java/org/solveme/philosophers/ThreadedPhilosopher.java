@@ -0,0 +1,235 @@
+package org.solveme.philosophers;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Philosopher, which runs within its own thread and spends time on eating, thinking and waiting for forks
+ * by blocking this thread. Strategies define only how forks are acquired and released.
+ */
+@Slf4j
+public abstract class ThreadedPhilosopher<F extends Fork, P extends ThreadedPhilosopher<F, P>> extends Philosopher<F, P> {
+
+    private final RetryPolicy retryPolicy;
+    private final long retryUnitNanos;
+
+    /**
+     * Failed attempts in a row and estimated share of failed attempts, see {@link RetryPolicy}
+     */
+    private int failures;
+    private double contention;
+
+    public ThreadedPhilosopher(Dinner<F, P> dinner, Identity identity, F leftFork, F rightFork) {
+        super(dinner, identity, leftFork, rightFork);
+        this.retryPolicy = dinner.settings.getRetryPolicy();
+        this.retryUnitNanos = TimeUnit.MILLISECONDS.toNanos(dinner.settings.getActionDurationMillis());
+    }
+
+    public ThreadedPhilosopher(Dinner<F, P> dinner, Identity identity) {
+        super(dinner, identity);
+        this.retryPolicy = dinner.settings.getRetryPolicy();
+        this.retryUnitNanos = TimeUnit.MILLISECONDS.toNanos(dinner.settings.getActionDurationMillis());
+    }
+
+    @Override
+    public Result run() {
+        timeRecorder.recordStart();
+        timeRecorder.recordTotal(this::takeDinner);
+        return Result.from(identity, timeRecorder);
+    }
+
+    public void takeDinner() {
+        while (!isShutdown()) {
+            act();
+        }
+
+        onLeave();
+        log.info(identity + " finished the dinner");
+    }
+
+    public void act() {
+        // Philosopher holds no forks here, so it's safe to switch them
+        applyRewiring();
+
+        if (acquireForks()) {
+            failures = 0;
+            contention = RetryPolicy.estimateContention(contention, false);
+            eat();
+            releaseForks();
+
+        } else if (retry()) {
+            return;
+        }
+
+        // Philosopher should spend some time on thinking even after successful eating
+        // to allow other philosophers to eat some food
+        think();
+    }
+
+    /**
+     * @return true if philosopher has paused according to the retry policy, false if it should think instead
+     */
+    private boolean retry() {
+        if (isShutdown()) {
+            return false;
+        }
+
+        failures++;
+        contention = RetryPolicy.estimateContention(contention, true);
+        long delayNanos = retryPolicy.delayNanos(failures, contention, retryUnitNanos, random);
+        if (delayNanos == RetryPolicy.THINK_AGAIN) {
+            return false;
+        }
+
+        timeRecorder.recordRetry();
+        pause(delayNanos);
+        return true;
+    }
+
+    /**
+     * Pause is a part of hunger, so it's recorded neither as thinking nor as fork access
+     */
+    protected void pause(long delayNanos) {
+        if (delayNanos == 0) {
+            Thread.yield();
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+
+        } catch (InterruptedException e) {
+            logActionInterruption("retrying");
+        }
+    }
+
+    public void interrupt() {
+        runner.interrupt();
+    }
+
+    /**
+     * Called within philosopher thread when it leaves the dinner
+     */
+    protected void onLeave() {
+        // no-op
+    }
+
+    private void logWithThreadStatus(String message) {
+        assert runner == Runner.currentRunner();
+        log.trace(message + ", interrupted: {}", runner.isInterrupted());
+    }
+
+    protected boolean acquireForks() {
+        if (isShutdown()) {
+            log.info("Skip fork acquiring due to shutdown");
+            return false;
+        }
+        logWithThreadStatus("Acquire forks");
+        long acquiringStart = System.nanoTime();
+        timeRecorder.recordHungry(acquiringStart);
+        boolean acquiringResult = acquireForks0();
+        dinner.getLiveRecorder().recordAttempt(System.nanoTime() - acquiringStart);
+        long hungerNanos = timeRecorder.recordAcquiring(acquiringStart, acquiringResult, dinner.isRebalancing());
+        if (acquiringResult) {
+            dinner.getLiveRecorder().recordMeal(hungerNanos);
+        }
+
+        return acquiringResult;
+    }
+
+    protected abstract boolean acquireForks0();
+
+    protected void releaseForks() {
+        logWithThreadStatus("Release forks");
+        timeRecorder.recordForkAccess(() -> {
+            holdHotForks();
+            releaseForks0();
+        });
+    }
+
+    /**
+     * Hot forks are held for a while before releasing. The delay is taken before the strategy releases forks,
+     * so it never holds a lock of the strategy and only neighbours wait for these forks
+     */
+    private void holdHotForks() {
+        long delayMillis = Math.max(leftFork.getReleaseDelayMillis(), rightFork.getReleaseDelayMillis());
+        if (delayMillis <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+
+        } catch (InterruptedException e) {
+            // Interruption just shortens the delay, but the strategy should still observe its notification or shutdown
+            logActionInterruption("holding hot forks");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    protected abstract void releaseForks0();
+
+    protected void eat() {
+        if (isShutdown()) {
+            log.info("Skip eating due to shutdown");
+            return;
+        }
+        logWithThreadStatus("Started to eat");
+        dinner.getConcurrencyRecorder().recordEatingStart();
+        try {
+            dinner.getLiveRecorder().recordEating(getSeatId(), timeRecorder.recordEating(this::eat0));
+        } finally {
+            dinner.getConcurrencyRecorder().recordEatingEnd();
+        }
+    }
+
+    protected void eat0() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(calculateEatingDurationMillis());
+
+        } catch (InterruptedException e) {
+            logActionInterruption("eating");
+            onEatingInterruption(isShutdown());
+        }
+    }
+
+    protected void onEatingInterruption(boolean isShutdown) {
+        // no-op
+    }
+
+    protected void think() {
+        if (isShutdown()) {
+            log.info("Skip thinking due to shutdown");
+            return;
+        }
+        logWithThreadStatus("Started to think");
+        timeRecorder.recordThinking(this::think0);
+    }
+
+    protected void think0() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(calculateThinkingDurationMillis());
+
+        } catch (InterruptedException e) {
+            logActionInterruption("thinking");
+            onThinkingInterruption(isShutdown());
+        }
+    }
+
+    protected void onThinkingInterruption(boolean isShutdown) {
+        // no-op
+    }
+
+    protected void logActionInterruption(String performedAction) {
+        if (isShutdown()) {
+            log.info("{} was asked to stop {} due shutdown", identity, performedAction);
+
+        } else {
+            log.trace("{} was asked to stop {}", identity, performedAction);
+        }
+    }
+
+
+}
@@ -0,0 +1,256 @@
+package org.solveme.philosophers;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.recorders.PhilosopherTimeRecorder;
+import org.solveme.philosophers.workload.Workload;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+
+/**
+ * Periodically checks progress counters of seated philosophers. Philosopher is stalled when it has not eaten
+ * for a while: if it keeps on attempting to acquire forks, that's a livelock or starvation, otherwise it's blocked.
+ * For stalled philosophers the wait-for chain over forks is reconstructed (philosopher waits for the fork,
+ * which is held by its neighbour, who waits for the next one...) and reported as a cycle or a convoy.
+ * <p>
+ * Each check takes a lock-free snapshot of every philosopher, the JVM is asked for deadlocked threads only
+ * when somebody is stalled, so the watchdog is cheap enough to stay on during long runs.
+ */
+@Slf4j
+public class Watchdog implements Runnable {
+
+    /**
+     * Philosopher is stalled when it has not eaten neither for this amount of checks
+     */
+    private static final int STALL_CHECKS = 5;
+
+    /**
+     * ...nor for this amount of its average eating and thinking cycles
+     */
+    private static final int STALL_CYCLES = 10;
+
+    private final Dinner<?, ?> dinner;
+    private final long periodMillis;
+    private final Thread thread;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final Map<Philosopher<?, ?>, Progress> progressByPhilosopher = new HashMap<>();
+    private final Set<Long> reportedDeadlocks = new LinkedHashSet<>();
+
+    private long checks;
+    private long stalls;
+    private long convoys;
+    private long cycles;
+    private long deadlocks;
+
+    public Watchdog(Dinner<?, ?> dinner, long periodMillis) {
+        this.dinner = dinner;
+        this.periodMillis = periodMillis;
+        this.thread = new Thread(this, StringUtils.leftPad("Watchdog", Identity.MAX_LENGTH));
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void stop() {
+        thread.interrupt();
+        try {
+            thread.join();
+
+        } catch (InterruptedException e) {
+            log.debug("Interrupted while waiting for watchdog to stop");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(periodMillis);
+
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            check(System.nanoTime());
+        }
+
+        log.info("Watchdog performed {} checks: {} stalls, {} convoys, {} wait-for cycles, {} deadlocked threads",
+                checks, stalls, convoys, cycles, deadlocks);
+    }
+
+    private void check(long now) {
+        checks++;
+
+        List<? extends Philosopher<?, ?>> seated = dinner.seatedPhilosophers();
+        // Philosophers, who left the dinner, are not watched anymore
+        progressByPhilosopher.keySet().retainAll(seated);
+
+        List<Philosopher<?, ?>> stalled = new ArrayList<>();
+        for (Philosopher<?, ?> philosopher : seated) {
+            Progress progress = progressByPhilosopher.computeIfAbsent(philosopher, p -> new Progress(p, now));
+            if (progress.update(now) && !progress.reported) {
+                progress.reported = true;
+                stalled.add(philosopher);
+            }
+        }
+
+        if (!stalled.isEmpty()) {
+            stalls += stalled.size();
+            stalled.forEach(this::reportStall);
+            reportDeadlockedThreads();
+        }
+    }
+
+    private void reportStall(Philosopher<?, ?> philosopher) {
+        Progress progress = progressByPhilosopher.get(philosopher);
+        List<Identity> chain = waitForChain(philosopher);
+        String chainDescription = chain.stream().map(Identity::toString).collect(Collectors.joining(" -> "));
+
+        log.warn("{} has not eaten for {} ms ({}), forks: left #{} held by {}, right #{} held by {}",
+                philosopher.getIdentity(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - progress.lastMealNanos),
+                progress.attemptsSinceMeal > 0 ? progress.attemptsSinceMeal + " failed attempts, livelock suspected" : "blocked",
+                philosopher.getLeftFork().getId(), holderOf(philosopher.getLeftFork()),
+                philosopher.getRightFork().getId(), holderOf(philosopher.getRightFork()));
+
+        Identity last = chain.get(chain.size() - 1);
+        if (chain.size() > 1 && last == chain.get(0)) {
+            cycles++;
+            log.error("Wait-for cycle over forks: {}", chainDescription);
+
+        } else if (chain.size() > 2) {
+            convoys++;
+            log.warn("Convoy of {} philosophers: {}", chain.size(), chainDescription);
+        }
+    }
+
+    /**
+     * Follows fork holders starting from the given philosopher until a free fork, a philosopher holding both forks
+     * or an already visited philosopher is found
+     *
+     * @return chain of philosophers, the last one is equal to the first one in case of a cycle
+     */
+    private List<Identity> waitForChain(Philosopher<?, ?> philosopher) {
+        List<Identity> chain = new ArrayList<>();
+        Set<Integer> visited = new LinkedHashSet<>();
+        Philosopher<?, ?> current = philosopher;
+
+        while (current != null) {
+            chain.add(current.getIdentity());
+            if (!visited.add(current.getSeatId())) {
+                break;
+            }
+
+            int holderId = awaitedHolderOf(current);
+            current = holderId >= 0 && dinner.getTable().isSeated(holderId)
+                    ? dinner.getPhilosopherBySeatId(holderId)
+                    : null;
+        }
+
+        return chain;
+    }
+
+    /**
+     * @return seatId of neighbour, who holds the fork awaited by the given philosopher, or -1
+     */
+    private int awaitedHolderOf(Philosopher<?, ?> philosopher) {
+        int seatId = philosopher.getSeatId();
+        for (Fork fork : new Fork[]{philosopher.getLeftFork(), philosopher.getRightFork()}) {
+            int holderId = fork.getHolderId();
+            if (holderId != Fork.FREE_FLAG && holderId != seatId) {
+                return holderId;
+            }
+        }
+        return -1;
+    }
+
+    private static String holderOf(Fork fork) {
+        int holderId = fork.getHolderId();
+        return holderId == Fork.FREE_FLAG ? "nobody" : Identity.at(holderId).toString();
+    }
+
+    /**
+     * Monitor and lock based strategies could be checked by JVM itself
+     */
+    private void reportDeadlockedThreads() {
+        long[] threadIds = threadMXBean.findDeadlockedThreads();
+        if (threadIds == null) {
+            return;
+        }
+
+        for (ThreadInfo info : threadMXBean.getThreadInfo(threadIds, true, true)) {
+            if (info != null && reportedDeadlocks.add(info.getThreadId())) {
+                deadlocks++;
+                log.error("Deadlock: {} waits for {} held by {}",
+                        info.getThreadName().trim(), info.getLockName(), StringUtils.trim(info.getLockOwnerName()));
+            }
+        }
+    }
+
+    private class Progress {
+
+        private final Philosopher<?, ?> philosopher;
+        private final long stallNanos;
+        private long lastMeals;
+        private long lastAttempts;
+        private long lastMealNanos;
+        private long attemptsSinceMeal;
+        private boolean reported;
+
+        Progress(Philosopher<?, ?> philosopher, long now) {
+            this.philosopher = philosopher;
+
+            Workload workload = dinner.settings.getWorkload();
+            int seatId = philosopher.getSeatId();
+            double cycleMillis = workload.eatingFor(seatId).getMeanMillis() + workload.thinkingFor(seatId).getMeanMillis();
+
+            this.stallNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(STALL_CHECKS * periodMillis, (long) (STALL_CYCLES * cycleMillis)));
+            PhilosopherTimeRecorder.Snapshot snapshot = philosopher.getTimeRecorder().snapshot();
+            this.lastMeals = snapshot.getMeals();
+            this.lastAttempts = snapshot.getAcquireAttempts();
+            this.lastMealNanos = now;
+        }
+
+        /**
+         * @return true if philosopher is stalled
+         */
+        boolean update(long now) {
+            PhilosopherTimeRecorder.Snapshot snapshot = philosopher.getTimeRecorder().snapshot();
+            long meals = snapshot.getMeals();
+            long attempts = snapshot.getAcquireAttempts();
+
+            if (meals != lastMeals) {
+                if (reported) {
+                    log.info("{} has recovered after the stall", philosopher.getIdentity());
+                }
+                lastMeals = meals;
+                lastMealNanos = now;
+                attemptsSinceMeal = 0;
+                reported = false;
+
+            } else {
+                attemptsSinceMeal += attempts - lastAttempts;
+            }
+            lastAttempts = attempts;
+
+            return now - lastMealNanos >= stallNanos;
+        }
+
+    }
+
+}
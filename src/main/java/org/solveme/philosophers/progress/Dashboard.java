@@ -0,0 +1,189 @@
+package org.solveme.philosophers.progress;
+
+import org.solveme.philosophers.Dinner;
+import org.solveme.philosophers.Identity;
+import org.solveme.philosophers.Philosopher;
+import org.solveme.philosophers.recorders.ConcurrencyRecorder;
+import org.solveme.philosophers.recorders.LatencyHistogram;
+import org.solveme.philosophers.recorders.LiveRecorder;
+import org.solveme.philosophers.recorders.PhilosopherTimeRecorder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.solveme.philosophers.util.Util.OUT;
+
+
+/**
+ * Aggregated live view of the dinner, redrawn in place. Dinner-wide figures are taken from {@link LiveRecorder}
+ * and {@link ConcurrencyRecorder}, starving philosophers are looked for by scanning a limited amount of seats
+ * per tick, so the cost of a tick doesn't depend on the amount of seats.
+ */
+public class Dashboard implements AutoCloseable {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SCAN_BUDGET = 1024;
+    private static final int TOP_STARVING = 5;
+    private static final String HEAT_SCALE = " .:-=+*#%@";
+    private static final int LINES = 4;
+
+    private final Dinner<?, ?> dinner;
+    private final LiveRecorder liveRecorder;
+    private final ConcurrencyRecorder concurrencyRecorder;
+
+    private LiveRecorder.Snapshot windowStart;
+    private double mealsPerSecond = 0;
+    private String[] lines = new String[0];
+    private boolean drawn = false;
+
+    /**
+     * Hungry philosophers found during scanning, keyed by seat
+     */
+    private final Map<Integer, Long> hungrySinceBySeat = new HashMap<>();
+    private int nextScannedSeat = 0;
+
+    public Dashboard(Dinner<?, ?> dinner) {
+        this.dinner = dinner;
+        this.liveRecorder = dinner.getLiveRecorder();
+        this.concurrencyRecorder = dinner.getConcurrencyRecorder();
+        this.windowStart = liveRecorder.snapshot();
+    }
+
+    public static Dashboard from(Dinner<?, ?> dinner) {
+        return new Dashboard(dinner);
+    }
+
+    public void tick(long runningMillis, long totalMillis) {
+        scanForStarving();
+
+        LiveRecorder.Snapshot now = liveRecorder.snapshot();
+        long windowNanos = now.getTakenNanos() - windowStart.getTakenNanos();
+        if (windowNanos >= WINDOW_NANOS || lines.length == 0) {
+            mealsPerSecond = windowNanos <= 0 ? 0 : (double) (now.getMeals() - windowStart.getMeals()) * TimeUnit.SECONDS.toNanos(1) / windowNanos;
+            lines = render(windowStart, now, runningMillis, totalMillis);
+            windowStart = now;
+        } else {
+            // Figures of the window are kept till the next one, only the clock and the gauge are updated
+            lines[0] = dinnerLine(now, runningMillis, totalMillis);
+        }
+
+        redraw();
+    }
+
+    private String[] render(LiveRecorder.Snapshot start, LiveRecorder.Snapshot end, long runningMillis, long totalMillis) {
+        return new String[]{
+                dinnerLine(end, runningMillis, totalMillis),
+                hungerLine(end.getHunger().minus(start.getHunger())),
+                heatmapLine(start, end),
+                starvingLine()
+        };
+    }
+
+    private String dinnerLine(LiveRecorder.Snapshot now, long runningMillis, long totalMillis) {
+        return String.format("Dinner   %d/%d s   %.1f meals/s, %d total   eating now %d (peak %d, bound %d)",
+                TimeUnit.MILLISECONDS.toSeconds(runningMillis), TimeUnit.MILLISECONDS.toSeconds(totalMillis),
+                mealsPerSecond, now.getMeals(),
+                concurrencyRecorder.getCurrent(), concurrencyRecorder.getPeak(), dinner.getTable().getSize() / 2);
+    }
+
+    private static String hungerLine(LatencyHistogram.Snapshot hunger) {
+        return String.format("Hunger   p50 %s   p90 %s   p99 %s   max %s   (%d meals in the last window)",
+                millis(hunger.getPercentile(0.5)), millis(hunger.getPercentile(0.9)),
+                millis(hunger.getPercentile(0.99)), millis(hunger.getMax()), hunger.getCount());
+    }
+
+    /**
+     * Each cell is a segment of contiguous seats, its symbol reflects share of time spent on eating by its seats
+     */
+    private String heatmapLine(LiveRecorder.Snapshot start, LiveRecorder.Snapshot end) {
+        long windowNanos = Math.max(1, end.getTakenNanos() - start.getTakenNanos());
+        StringBuilder cells = new StringBuilder();
+
+        for (int segment = 0; segment < liveRecorder.getSegmentCount(); segment++) {
+            long eatingNanos = end.getEatingNanosBySegment()[segment] - start.getEatingNanosBySegment()[segment];
+            // Neighbours never eat together, so half of the seats is the full utilization
+            double utilization = 2D * eatingNanos / windowNanos / liveRecorder.seatCountOf(segment);
+            int level = (int) Math.round(Math.min(1, Math.max(0, utilization)) * (HEAT_SCALE.length() - 1));
+            cells.append(HEAT_SCALE.charAt(level));
+        }
+
+        return String.format("Eating   |%s| %d seats in %d segments", cells, dinner.getSeatCapacity(), liveRecorder.getSegmentCount());
+    }
+
+    private String starvingLine() {
+        List<String> starving = hungrySinceBySeat.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(TOP_STARVING)
+                .map(e -> Identity.at(e.getKey()) + " " + millis(System.nanoTime() - e.getValue()))
+                .collect(Collectors.toList());
+
+        return "Starving " + (starving.isEmpty() ? "nobody" : String.join(", ", starving));
+    }
+
+    /**
+     * Scans next seats within the budget and re-checks already found hungry philosophers
+     */
+    private void scanForStarving() {
+        int capacity = dinner.getSeatCapacity();
+
+        for (Integer seatId : new ArrayList<>(hungrySinceBySeat.keySet())) {
+            updateHunger(seatId);
+        }
+
+        for (int i = 0; i < Math.min(SCAN_BUDGET, capacity); i++) {
+            updateHunger(nextScannedSeat);
+            nextScannedSeat = (nextScannedSeat + 1) % capacity;
+        }
+
+        // Only the most starving ones are kept, so re-checking is bounded too
+        if (hungrySinceBySeat.size() > SCAN_BUDGET) {
+            List<Integer> satisfied = hungrySinceBySeat.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
+                    .limit(hungrySinceBySeat.size() - SCAN_BUDGET)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            satisfied.forEach(hungrySinceBySeat::remove);
+        }
+    }
+
+    private void updateHunger(int seatId) {
+        Philosopher<?, ?> philosopher = dinner.getPhilosopherBySeatId(seatId);
+        PhilosopherTimeRecorder.Snapshot snapshot = philosopher == null || !dinner.getTable().isSeated(seatId)
+                ? null
+                : philosopher.getTimeRecorder().snapshot();
+
+        if (snapshot != null && snapshot.getHungrySince() != 0) {
+            hungrySinceBySeat.put(seatId, snapshot.getHungrySince());
+        } else {
+            hungrySinceBySeat.remove(seatId);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+    }
+
+    private void redraw() {
+        StringBuilder frame = new StringBuilder();
+        if (drawn) {
+            // Move cursor to the first line of the previous frame
+            frame.append("\033[").append(LINES).append('F');
+        }
+        for (String line : lines) {
+            frame.append("\033[2K").append(line).append(System.lineSeparator());
+        }
+        OUT.print(frame);
+        OUT.flush();
+        drawn = true;
+    }
+
+    @Override
+    public void close() {
+        // Last frame stays on the screen
+    }
+
+}
@@ -0,0 +1,198 @@
+package org.solveme.philosophers.recorders;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Lock-free gauge of currently eating philosophers. Amount of eaters and the moment of its last change
+ * are packed into a single word, so each change is a single CAS and the thread, which wins it, exclusively
+ * accounts the elapsed interval to the previous level of the time-weighted histogram.
+ * <p>
+ * Moment is stored as ticks of 256 nanos since the start of recording in upper 40 bits (enough for days of dinner),
+ * amount of eaters is stored in lower 24 bits (enough for tables of 33 million seats).
+ */
+public class ConcurrencyRecorder {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int TICK_SHIFT = 8;
+
+    private final AtomicLong state = new AtomicLong();
+    private final AtomicLongArray nanosByLevel;
+    private final AtomicInteger peak = new AtomicInteger();
+
+    /**
+     * Ticks of all eaters up to the last change, unlike the histogram it's not cut by the end of recording
+     */
+    private final AtomicLong eaterTicks = new AtomicLong();
+
+    private volatile long startNanos;
+    private volatile long endTicks = Long.MAX_VALUE;
+
+    /**
+     * @param capacity maximum amount of philosophers, which could eat at the same time
+     */
+    public ConcurrencyRecorder(int capacity) {
+        if (capacity > COUNT_MASK) {
+            throw new IllegalArgumentException("Capacity " + capacity + " is too big for concurrency recording");
+        }
+        this.nanosByLevel = new AtomicLongArray(capacity + 1);
+    }
+
+    public void recordStart() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Intervals after the end are not accounted, so late eaters of the shutdown don't affect the result
+     */
+    public void recordEnd() {
+        endTicks = now();
+        change(0);
+    }
+
+    public void recordEatingStart() {
+        peak.accumulateAndGet(change(1), Math::max);
+    }
+
+    public void recordEatingEnd() {
+        change(-1);
+    }
+
+    /**
+     * @return amount of eaters after the change
+     */
+    private int change(int delta) {
+        while (true) {
+            long current = state.get();
+            long now = Math.max(now(), current >>> COUNT_BITS);
+            int count = (int) (current & COUNT_MASK);
+            long next = (now << COUNT_BITS) | (count + delta);
+
+            if (state.compareAndSet(current, next)) {
+                if (count > 0) {
+                    eaterTicks.addAndGet(count * (now - (current >>> COUNT_BITS)));
+                }
+
+                long elapsed = Math.min(now, endTicks) - Math.min(current >>> COUNT_BITS, endTicks);
+                if (elapsed > 0) {
+                    // Broken strategy could exceed the bound, such intervals are accounted to the top level
+                    nanosByLevel.addAndGet(Math.min(count, nanosByLevel.length() - 1), elapsed << TICK_SHIFT);
+                }
+                return count + delta;
+            }
+        }
+    }
+
+    /**
+     * Meals in progress are accounted up to now, so the difference of two calls is the exact eating time between them.
+     * Change, which is accounted concurrently, could be seen by the next call only, so adjacent differences
+     * could rarely share a small error.
+     *
+     * @return eating nanos of all philosophers since the start of recording
+     */
+    public long getEatingNanos() {
+        while (true) {
+            long current = state.get();
+            long accounted = eaterTicks.get();
+            if (state.get() == current) {
+                long sinceChange = Math.max(0, now() - (current >>> COUNT_BITS));
+                return (accounted + (current & COUNT_MASK) * sinceChange) << TICK_SHIFT;
+            }
+        }
+    }
+
+    /**
+     * @return ticks since the start of recording
+     */
+    private long now() {
+        return (System.nanoTime() - startNanos) >>> TICK_SHIFT;
+    }
+
+    /**
+     * @return amount of philosophers eating right now
+     */
+    public int getCurrent() {
+        return (int) (state.get() & COUNT_MASK);
+    }
+
+    public int getPeak() {
+        return peak.get();
+    }
+
+    /**
+     * Should be called after {@link #recordEnd()}
+     *
+     * @param seats peak amount of philosophers at the table, which defines theoretical maximum of concurrent eaters
+     */
+    public Summary summary(int seats) {
+        long[] histogram = new long[nanosByLevel.length()];
+        for (int level = 0; level < histogram.length; level++) {
+            histogram[level] = nanosByLevel.get(level);
+        }
+        return new Summary(histogram, peak.get(), seats);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Summary {
+
+        /**
+         * Nanos spent with the given amount of concurrent eaters
+         */
+        private final long[] histogram;
+        private final int peak;
+        private final int seats;
+
+        /**
+         * Neighbours could never eat at the same time, so at most floor(n/2) philosophers eat at once
+         */
+        public int getBound() {
+            return seats / 2;
+        }
+
+        public long getTotalNanos() {
+            long total = 0;
+            for (long nanos : histogram) {
+                total += nanos;
+            }
+            return total;
+        }
+
+        public double getAverage() {
+            long total = getTotalNanos();
+            if (total == 0) {
+                return 0;
+            }
+
+            double weighted = 0;
+            for (int level = 0; level < histogram.length; level++) {
+                weighted += (double) level * histogram[level];
+            }
+            return weighted / total;
+        }
+
+        /**
+         * @return average concurrency as a share of the bound
+         */
+        public double getEfficiency() {
+            int bound = getBound();
+            return bound == 0 ? 0 : getAverage() / bound;
+        }
+
+        /**
+         * @return share of time spent with the given amount of concurrent eaters
+         */
+        public double getShareOf(int level) {
+            long total = getTotalNanos();
+            return total == 0 || level >= histogram.length ? 0 : (double) histogram[level] / total;
+        }
+
+    }
+
+}
@@ -12,11 +12,13 @@ public class DinnerTimeRecorder {
     private final TimeRecorder runningDuration = new TimeRecorder();
 
     private Instant start;
+    private long startNanos;
     private Instant end;
     private Duration duration;
 
     public void recordStart() {
         start = Instant.now();
+        startNanos = System.nanoTime();
     }
 
     public void recordEnd() {
@@ -1,11 +1,23 @@
 package org.solveme.philosophers.recorders;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 
+import java.util.concurrent.locks.StampedLock;
 
+
+/**
+ * Usage is recorded right after releasing, so both users of the fork could record at the same time, as well as
+ * helper threads of strategies, which release forks on behalf of philosophers. Writers are serialized by the write
+ * lock. Other threads should use {@link #snapshot()}, see {@link PhilosopherTimeRecorder} for details.
+ */
 @Getter
 public class ForkTimeRecorder {
 
+    @Getter(AccessLevel.NONE)
+    private final StampedLock versions = new StampedLock();
+
     private final TimeRecorder leftUsage = new TimeRecorder();
     private final TimeRecorder rightUsage = new TimeRecorder();
 
@@ -13,14 +25,56 @@ public class ForkTimeRecorder {
      * @param usageNanos of user to the left of fork
      */
     public void recordLeftUsage(long usageNanos) {
-        leftUsage.addSpentNanos(usageNanos);
+        record(leftUsage, usageNanos);
     }
 
     /**
-     * @param usageNanos of user to the left of fork
+     * @param usageNanos of user to the right of fork
      */
     public void recordRightUsage(long usageNanos) {
-        rightUsage.addSpentNanos(usageNanos);
+        record(rightUsage, usageNanos);
+    }
+
+    private void record(TimeRecorder recorder, long usageNanos) {
+        long stamp = versions.writeLock();
+        try {
+            recorder.addSpentNanos(usageNanos);
+        } finally {
+            versions.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Could be called by any thread, spins until the consistent view is read
+     */
+    public Snapshot snapshot() {
+        while (true) {
+            long stamp = versions.tryOptimisticRead();
+            if (stamp == 0) {
+                // Update is in progress
+                Thread.yield();
+                continue;
+            }
+
+            Snapshot snapshot = new Snapshot(leftUsage.getNanos(), rightUsage.getNanos());
+
+            if (versions.validate(stamp)) {
+                return snapshot;
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Snapshot {
+
+        private final long leftUsageNanos;
+        private final long rightUsageNanos;
+
+        public long getTotalUsageNanos() {
+            return leftUsageNanos + rightUsageNanos;
+        }
+
     }
 
 }
@@ -0,0 +1,113 @@
+package org.solveme.philosophers.recorders;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Lock-free log-linear histogram of nanos: each power of two is split into 4 buckets, so any value is reported
+ * with an error below 25% while the whole histogram takes a fixed amount of memory.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 2;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int SIZE = (Long.SIZE - SUB_BITS) << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(Math.max(0, nanos)));
+    }
+
+    public Snapshot snapshot() {
+        long[] values = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = counts.get(i);
+        }
+        return new Snapshot(values);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) | sub;
+    }
+
+    /**
+     * @return the biggest value, that falls into the bucket
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+
+        int shift = (index >>> SUB_BITS) - 1;
+        long lower = (long) (SUB_COUNT | (index & (SUB_COUNT - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Counts at some moment, not necessarily consistent between buckets, which is fine for statistics
+     */
+    @RequiredArgsConstructor
+    public static class Snapshot {
+
+        private final long[] counts;
+
+        public static Snapshot empty() {
+            return new Snapshot(new long[SIZE]);
+        }
+
+        /**
+         * @return values recorded since the given snapshot
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] values = new long[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                values[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(values);
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (long value : counts) {
+                count += value;
+            }
+            return count;
+        }
+
+        /**
+         * @param quantile in range (0, 1]
+         * @return upper bound of the bucket with the quantile, zero if histogram is empty
+         */
+        public long getPercentile(double quantile) {
+            long target = (long) Math.ceil(quantile * getCount());
+            long cumulative = 0;
+            for (int i = 0; i < SIZE; i++) {
+                cumulative += counts[i];
+                if (cumulative >= target && cumulative > 0) {
+                    return upperBoundOf(i);
+                }
+            }
+            return 0;
+        }
+
+        public long getMax() {
+            for (int i = SIZE - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return upperBoundOf(i);
+                }
+            }
+            return 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package org.solveme.philosophers.recorders;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Dinner-wide counters for live telemetry, updated by all philosophers without locks. Seats are grouped into
+ * a fixed amount of contiguous segments, so the cost of reading doesn't depend on the amount of seats.
+ */
+public class LiveRecorder {
+
+    public static final int MAX_SEGMENTS = 64;
+
+    private final int capacity;
+    @Getter
+    private final int segmentCount;
+
+    private final LongAdder meals = new LongAdder();
+    private final LatencyHistogram hunger = new LatencyHistogram();
+    private final LatencyHistogram attempts = new LatencyHistogram();
+    private final AtomicLongArray eatingNanosBySegment;
+
+    /**
+     * When the first meal of the dinner was started, zero before it
+     */
+    private final AtomicLong firstMealNanos = new AtomicLong();
+
+    public LiveRecorder(int capacity) {
+        this.capacity = capacity;
+        this.segmentCount = Math.min(capacity, MAX_SEGMENTS);
+        this.eatingNanosBySegment = new AtomicLongArray(segmentCount);
+    }
+
+    /**
+     * @param hungerNanos time from the first attempt to acquire forks until they were acquired
+     */
+    public void recordMeal(long hungerNanos) {
+        // Plain read keeps the CAS out of all meals but the first ones
+        if (firstMealNanos.get() == 0) {
+            firstMealNanos.compareAndSet(0, System.nanoTime());
+        }
+        meals.increment();
+        hunger.record(hungerNanos);
+    }
+
+    /**
+     * @param attemptNanos duration of a single attempt to acquire forks, either successful or not
+     */
+    public void recordAttempt(long attemptNanos) {
+        attempts.record(attemptNanos);
+    }
+
+    /**
+     * @return zero if nobody has eaten yet
+     */
+    public long getFirstMealNanos() {
+        return firstMealNanos.get();
+    }
+
+    public void recordEating(int seatId, long eatingNanos) {
+        eatingNanosBySegment.addAndGet(segmentOf(seatId), eatingNanos);
+    }
+
+    public int segmentOf(int seatId) {
+        return (int) ((long) seatId * segmentCount / capacity);
+    }
+
+    /**
+     * @return first seat of the segment
+     */
+    public int firstSeatOf(int segment) {
+        return (int) (((long) segment * capacity + segmentCount - 1) / segmentCount);
+    }
+
+    public int seatCountOf(int segment) {
+        return firstSeatOf(segment + 1) - firstSeatOf(segment);
+    }
+
+    public Snapshot snapshot() {
+        long[] eatingNanos = new long[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            eatingNanos[segment] = eatingNanosBySegment.get(segment);
+        }
+        return new Snapshot(System.nanoTime(), meals.sum(), hunger.snapshot(), attempts.snapshot(), eatingNanos);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Snapshot {
+
+        private final long takenNanos;
+        private final long meals;
+        private final LatencyHistogram.Snapshot hunger;
+        private final LatencyHistogram.Snapshot attempts;
+        private final long[] eatingNanosBySegment;
+
+        public long getEatingNanos() {
+            long total = 0;
+            for (long nanos : eatingNanosBySegment) {
+                total += nanos;
+            }
+            return total;
+        }
+
+    }
+
+}
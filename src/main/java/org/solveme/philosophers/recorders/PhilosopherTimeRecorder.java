@@ -1,24 +1,266 @@
 package org.solveme.philosophers.recorders;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.solveme.philosophers.util.Util;
 
 import java.time.Duration;
+import java.util.concurrent.locks.StampedLock;
 
 
 /**
  * Due to fact that recording would be performed only withing dedicated philosopher thread,
- * we don't use any synchronization for class fields
+ * we don't use any synchronization for class fields.
+ * <p>
+ * Other threads should use {@link #snapshot()} during the dinner: each update is wrapped into a write section
+ * of the {@link StampedLock} used as a seqlock, so readers validate their optimistic reads and retry on a concurrent
+ * update. Readers never take the lock for real, thus the philosopher thread is never blocked by them.
  */
 @Getter
 public class PhilosopherTimeRecorder {
 
+    @Getter(AccessLevel.NONE)
+    private final StampedLock versions = new StampedLock();
+
     private final TimeRecorder eatingDuration = new TimeRecorder();
     private final TimeRecorder thinkingDuration = new TimeRecorder();
     private final TimeRecorder forkAccessDuration = new TimeRecorder();
     private final TimeRecorder totalDuration = new TimeRecorder();
 
+    private long startNanos;
+    private long meals;
+    private long acquireAttempts;
+    private long retries;
+    private long hungerNanos;
+    private long maxHungerNanos;
+    private long rebalancingMeals;
+    private long rebalancingHungerNanos;
+
+    /**
+     * Start of the first unsuccessful attempt since the last meal, zero when philosopher isn't hungry
+     */
+    private long hungrySince;
+
+    /**
+     * Marks philosopher as hungry before the attempt, so the hunger is visible while the attempt is blocked
+     */
+    public void recordHungry(long attemptStartNanos) {
+        if (hungrySince != 0) {
+            return;
+        }
+
+        long stamp = versions.writeLock();
+        try {
+            hungrySince = attemptStartNanos;
+        } finally {
+            versions.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Hunger is a time between the first attempt to acquire forks and the moment when forks were finally acquired,
+     * so it covers all failed attempts and time spent on thinking between them.
+     * Time of the attempt itself is recorded as fork access.
+     *
+     * @param attemptStartNanos when acquiring attempt has started
+     * @param acquired          whether forks were acquired by this attempt
+     * @param rebalancing       whether membership of the dinner was changing at the moment of acquiring
+     * @return hunger satisfied by this attempt, or -1 if forks were not acquired
+     */
+    public long recordAcquiring(long attemptStartNanos, boolean acquired, boolean rebalancing) {
+        long end = System.nanoTime();
+        long stamp = versions.writeLock();
+        try {
+            forkAccessDuration.addSpentNanos(end - attemptStartNanos);
+            return recordAcquiring0(attemptStartNanos, end, acquired, rebalancing);
+        } finally {
+            versions.unlockWrite(stamp);
+        }
+    }
+
+    private long recordAcquiring0(long attemptStartNanos, long end, boolean acquired, boolean rebalancing) {
+        acquireAttempts++;
+
+        if (hungrySince == 0) {
+            hungrySince = attemptStartNanos;
+        }
+
+        if (acquired) {
+            long hunger = end - hungrySince;
+            meals++;
+            hungerNanos += hunger;
+            maxHungerNanos = Math.max(maxHungerNanos, hunger);
+            hungrySince = 0;
+
+            if (rebalancing) {
+                rebalancingMeals++;
+                rebalancingHungerNanos += hunger;
+            }
+            return hunger;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Failed attempt is followed by a retry instead of thinking
+     */
+    public void recordRetry() {
+        long stamp = versions.writeLock();
+        try {
+            retries++;
+        } finally {
+            versions.unlockWrite(stamp);
+        }
+    }
+
+    public void recordStart() {
+        long stamp = versions.writeLock();
+        try {
+            startNanos = System.nanoTime();
+        } finally {
+            versions.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return time spent on eating
+     */
+    public long recordEating(Util.Action action) {
+        return record(eatingDuration, action);
+    }
+
+    public void recordThinking(Util.Action action) {
+        record(thinkingDuration, action);
+    }
+
+    public void recordForkAccess(Util.Action action) {
+        record(forkAccessDuration, action);
+    }
+
+    public void recordTotal(Util.Action action) {
+        record(totalDuration, action);
+    }
+
+    /**
+     * For philosophers, whose activities are not performed within a single call, e.g. driven by continuations
+     */
+    public void recordEating(long spentNanos) {
+        add(eatingDuration, spentNanos);
+    }
+
+    public void recordThinking(long spentNanos) {
+        add(thinkingDuration, spentNanos);
+    }
+
+    public void recordTotal(long spentNanos) {
+        add(totalDuration, spentNanos);
+    }
+
+    private long record(TimeRecorder recorder, Util.Action action) {
+        long spentNanos = TimeRecorder.measureDuration(action);
+        add(recorder, spentNanos);
+        return spentNanos;
+    }
+
+    private void add(TimeRecorder recorder, long spentNanos) {
+        long stamp = versions.writeLock();
+        try {
+            recorder.addSpentNanos(spentNanos);
+        } finally {
+            versions.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Could be called by any thread, spins until the consistent view is read
+     */
+    public Snapshot snapshot() {
+        while (true) {
+            long stamp = versions.tryOptimisticRead();
+            if (stamp == 0) {
+                // Update is in progress
+                Thread.yield();
+                continue;
+            }
+
+            Snapshot snapshot = new Snapshot(
+                    System.nanoTime(),
+                    startNanos,
+                    eatingDuration.getNanos(),
+                    thinkingDuration.getNanos(),
+                    forkAccessDuration.getNanos(),
+                    meals,
+                    acquireAttempts,
+                    hungerNanos,
+                    maxHungerNanos,
+                    hungrySince
+            );
+
+            if (versions.validate(stamp)) {
+                return snapshot;
+            }
+        }
+    }
+
+    public Duration getHungerDuration() {
+        return Duration.ofNanos(hungerNanos);
+    }
+
+    public Duration getRebalancingHungerDuration() {
+        return Duration.ofNanos(rebalancingHungerNanos);
+    }
+
+    public Duration getMaxHungerDuration() {
+        return Duration.ofNanos(maxHungerNanos);
+    }
+
     public Duration getIdleDuration() {
         return Duration.ofNanos(totalDuration.getNanos() - (eatingDuration.getNanos() + thinkingDuration.getNanos() + forkAccessDuration.getNanos()));
     }
 
+
+    /**
+     * Consistent view of the recorder at some moment of the dinner
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Snapshot {
+
+        private final long takenNanos;
+        private final long startNanos;
+        private final long eatingNanos;
+        private final long thinkingNanos;
+        private final long forkAccessNanos;
+        private final long meals;
+        private final long acquireAttempts;
+        private final long hungerNanos;
+        private final long maxHungerNanos;
+
+        /**
+         * Zero when philosopher isn't hungry
+         */
+        private final long hungrySince;
+
+        public boolean isStarted() {
+            return startNanos != 0;
+        }
+
+        /**
+         * @return time since the philosopher has started, it's never less than sum of recorded activities
+         */
+        public long getTotalNanos() {
+            return isStarted() ? Math.max(takenNanos - startNanos, eatingNanos + thinkingNanos + forkAccessNanos) : 0;
+        }
+
+        /**
+         * @return duration of the current hunger, including the one that is not yet satisfied
+         */
+        public long getCurrentHungerNanos() {
+            return hungrySince == 0 ? 0 : Math.max(0, takenNanos - hungrySince);
+        }
+
+    }
+
 }
@@ -0,0 +1,50 @@
+package org.solveme.philosophers.results;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.function.Function;
+
+
+public class CountColumn<R> extends ResultColumn<R, Long> {
+
+    private static final int PADDING = 2;
+
+    private final int width;
+    private final String header;
+
+    public CountColumn(Function<R, Long> mapper, int width, String header) {
+        super(mapper);
+        this.width = width;
+        this.header = header;
+    }
+
+    public static <R> CountColumn<R> build(@Nonnull String header,
+                                           @Nonnull Collection<R> values,
+                                           @Nonnull Function<R, Long> mapper
+    ) {
+        int finalWidth = calculateMaxWidthOf(values, r -> String.valueOf(mapper.apply(r)))
+                .map(w -> Math.max(w, header.length()))
+                .map(w -> w + PADDING)
+                .orElse(10);
+
+        return new CountColumn<>(mapper, finalWidth, header);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public String getHeader() {
+        return StringUtils.leftPad(header, getWidth());
+    }
+
+    @Override
+    public String formatValue(Long value) {
+        return StringUtils.leftPad(String.valueOf(value), getWidth());
+    }
+
+}
@@ -8,37 +8,90 @@ import org.solveme.philosophers.Identity;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.solveme.philosophers.util.Util.OUT;
 
 
 @Slf4j
 public class ForkResults extends ResultTable<Fork.Result> {
 
+    private static final int TOTAL_USAGE_METRIC = 2;
+    private static final int TOP_COUNT = 5;
+
     private final IdColumn idColumn = new IdColumn();
     private final List<DurationColumn<Fork.Result>> durationColumns;
 
-    public static ForkResults from(@Nonnull List<Fork.Result> results,
-                                   @Nonnull Duration dinnerDuration
+    /**
+     * Null if every fork has own row
+     */
+    private final ResultSummary<Fork.Result> summary;
+
+    /**
+     * Results of forks are calculated while they are summarized, so large tables are never collected whole
+     */
+    public static ForkResults from(@Nonnull List<? extends Fork> forks,
+                                   @Nonnull Duration dinnerDuration,
+                                   int maxRows
     ) {
 
-        List<DurationColumn<Fork.Result>> columns = Arrays.asList(
-                column().build("Left usage", DurationColumn.Unit.MILLIS, results, Fork.Result::getLeftUsageDuration),
-                column().build("Right usage", DurationColumn.Unit.MILLIS, results, Fork.Result::getRightUsageDuration),
-                column().build("Total usage", DurationColumn.Unit.MILLIS, results, Fork.Result::getTotalUsageDuration),
-                column().build("Idle", DurationColumn.Unit.MILLIS, results, r -> dinnerDuration.minus(r.getTotalUsageDuration()))
+        List<ResultSummary.Metric<Fork.Result>> metrics = Arrays.asList(
+                ResultSummary.Metric.duration("Left usage", DurationColumn.Unit.MILLIS, Fork.Result::getLeftUsageDuration),
+                ResultSummary.Metric.duration("Right usage", DurationColumn.Unit.MILLIS, Fork.Result::getRightUsageDuration),
+                ResultSummary.Metric.duration("Total usage", DurationColumn.Unit.MILLIS, Fork.Result::getTotalUsageDuration),
+                ResultSummary.Metric.duration("Idle", DurationColumn.Unit.MILLIS, r -> dinnerDuration.minus(r.getTotalUsageDuration()))
         );
 
-        return new ForkResults(results, dinnerDuration, columns);
+        if (forks.size() <= maxRows) {
+            List<Fork.Result> results = forks.stream().map(Fork::calculateResult).collect(Collectors.toList());
+            return new ForkResults(results, dinnerDuration, columnsOf(metrics, results));
+        }
+
+        ResultSummary<Fork.Result> summary = ResultSummary.of(
+                forks, Fork::calculateResult, metrics, metrics.get(TOTAL_USAGE_METRIC), TOP_COUNT
+        );
+        List<Fork.Result> rows = new ArrayList<>(summary.getHighest());
+        rows.addAll(summary.getLowest());
+        return new ForkResults(rows, dinnerDuration, columnsOf(metrics, rows), summary);
     }
 
     public ForkResults(@Nonnull List<Fork.Result> values,
                        @Nonnull Duration dinnerDuration,
                        @Nonnull List<DurationColumn<Fork.Result>> durationColumns
+    ) {
+        this(values, dinnerDuration, durationColumns, null);
+    }
+
+    private ForkResults(@Nonnull List<Fork.Result> values,
+                        @Nonnull Duration dinnerDuration,
+                        @Nonnull List<DurationColumn<Fork.Result>> durationColumns,
+                        ResultSummary<Fork.Result> summary
     ) {
         super(values, dinnerDuration);
         this.durationColumns = durationColumns;
+        this.summary = summary;
+    }
+
+    @Override
+    public void print() {
+        if (summary == null) {
+            super.print();
+            return;
+        }
+
+        OUT.println(String.format("Summary of %d forks:", summary.getCount()));
+        summary.print();
+
+        OUT.println();
+        OUT.println("Busiest:");
+        printHeader();
+        summary.getHighest().forEach(this::printResultRow);
+        OUT.println("Idlest:");
+        summary.getLowest().forEach(this::printResultRow);
     }
 
     @Override
@@ -63,6 +116,12 @@ public class ForkResults extends ResultTable<Fork.Result> {
         return DurationColumn.builder();
     }
 
+    private static List<DurationColumn<Fork.Result>> columnsOf(List<ResultSummary.Metric<Fork.Result>> metrics, List<Fork.Result> rows) {
+        return metrics.stream()
+                .map(m -> column().build(m.getHeader(), m.getUnit(), rows, m.asDuration()))
+                .collect(Collectors.toList());
+    }
+
 
     static class IdColumn extends ResultColumn<Fork.Result, Fork.Result> {
 
@@ -0,0 +1,110 @@
+package org.solveme.philosophers.results;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.IntervalSampler;
+
+import javax.annotation.Nonnull;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Recorded intervals grouped into a limited amount of consecutive periods, so the drift of throughput
+ * and latency over the dinner fits into a few rows for any dinner duration
+ */
+public class IntervalResults extends ResultTable<IntervalResults.Period> {
+
+    private static final int MAX_PERIODS = 10;
+    private static final int VALUE_WIDTH = 14;
+    private static final NumberFormat FORMATTER = new DecimalFormat("#.##");
+
+    public IntervalResults(@Nonnull List<Period> values, @Nonnull Duration dinnerDuration) {
+        super(values, dinnerDuration);
+    }
+
+    public static IntervalResults from(@Nonnull List<IntervalSampler.Interval> intervals, @Nonnull Duration dinnerDuration) {
+        List<Period> periods = new ArrayList<>();
+        int size = (intervals.size() + MAX_PERIODS - 1) / MAX_PERIODS;
+
+        for (int from = 0; from < intervals.size(); from += size) {
+            periods.add(Period.from(intervals.subList(from, Math.min(from + size, intervals.size()))));
+        }
+
+        return new IntervalResults(periods, dinnerDuration);
+    }
+
+    @Override
+    protected void printHeader() {
+        row()
+                .append(StringUtils.rightPad("Period[s]", VALUE_WIDTH))
+                .appendPadded("Meals/s", VALUE_WIDTH)
+                .appendPadded("Min meals/s", VALUE_WIDTH)
+                .appendPadded("Hunger p50", VALUE_WIDTH)
+                .appendPadded("Worst p99", VALUE_WIDTH)
+                .appendPadded("Attempt p99", VALUE_WIDTH)
+                .appendPadded("Eating[%]", VALUE_WIDTH)
+                .print();
+    }
+
+    @Override
+    protected void printResultRow(Period period) {
+        row()
+                .append(StringUtils.rightPad(String.format("%.1f-%.1f",
+                        period.getStartMillis() / 1000D, period.getEndMillis() / 1000D), VALUE_WIDTH))
+                .appendPadded(FORMATTER.format(period.getMealsPerSecond()), VALUE_WIDTH)
+                .appendPadded(FORMATTER.format(period.getMinMealsPerSecond()), VALUE_WIDTH)
+                .appendPadded(millis(period.getHungerP50Nanos()), VALUE_WIDTH)
+                .appendPadded(millis(period.getWorstHungerP99Nanos()), VALUE_WIDTH)
+                .appendPadded(millis(period.getWorstAttemptP99Nanos()), VALUE_WIDTH)
+                .appendPadded(FORMATTER.format(period.getUtilization() * 100), VALUE_WIDTH)
+                .print();
+    }
+
+    private static String millis(long nanos) {
+        return FORMATTER.format(nanos / 1e6);
+    }
+
+
+    /**
+     * Percentiles of intervals could not be merged, so the median of the period is the mean of interval medians
+     * and the worst of interval 99th percentiles is reported
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Period {
+
+        private final long startMillis;
+        private final long endMillis;
+        private final double mealsPerSecond;
+        private final double minMealsPerSecond;
+        private final long hungerP50Nanos;
+        private final long worstHungerP99Nanos;
+        private final long worstAttemptP99Nanos;
+        private final double utilization;
+
+        static Period from(List<IntervalSampler.Interval> intervals) {
+            IntervalSampler.Interval first = intervals.get(0);
+            IntervalSampler.Interval last = intervals.get(intervals.size() - 1);
+            long durationMillis = intervals.stream().mapToLong(IntervalSampler.Interval::getDurationMillis).sum();
+            long meals = intervals.stream().mapToLong(IntervalSampler.Interval::getMeals).sum();
+
+            return new Period(
+                    first.getStartMillis(),
+                    last.getStartMillis() + last.getDurationMillis(),
+                    durationMillis == 0 ? 0 : meals * 1000D / durationMillis,
+                    intervals.stream().mapToDouble(IntervalSampler.Interval::getMealsPerSecond).min().orElse(0),
+                    (long) intervals.stream().mapToLong(IntervalSampler.Interval::getHungerP50Nanos).average().orElse(0),
+                    intervals.stream().mapToLong(IntervalSampler.Interval::getHungerP99Nanos).max().orElse(0),
+                    intervals.stream().mapToLong(IntervalSampler.Interval::getAttemptP99Nanos).max().orElse(0),
+                    intervals.stream().mapToDouble(IntervalSampler.Interval::getUtilization).average().orElse(0)
+            );
+        }
+
+    }
+
+}
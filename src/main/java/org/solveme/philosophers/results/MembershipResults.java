@@ -0,0 +1,85 @@
+package org.solveme.philosophers.results;
+
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.Identity;
+import org.solveme.philosophers.Philosopher;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+/**
+ * Lifetimes of dinner members, each membership (even of the same seat) is displayed as separate row.
+ * Rebalancing hunger is a hunger of meals, that were acquired while membership of the dinner was changing.
+ */
+public class MembershipResults extends ResultTable<Philosopher.Result> {
+
+    private final List<DurationColumn<Philosopher.Result>> durationColumns;
+    private final List<CountColumn<Philosopher.Result>> countColumns;
+
+    public MembershipResults(@Nonnull List<Philosopher.Result> values,
+                             @Nonnull Duration dinnerDuration,
+                             @Nonnull List<DurationColumn<Philosopher.Result>> durationColumns,
+                             @Nonnull List<CountColumn<Philosopher.Result>> countColumns
+    ) {
+        super(values, dinnerDuration);
+        this.durationColumns = durationColumns;
+        this.countColumns = countColumns;
+    }
+
+    public static MembershipResults from(@Nonnull List<Philosopher.Result> results,
+                                         long dinnerStartNanos,
+                                         @Nonnull Duration dinnerDuration
+    ) {
+        List<DurationColumn<Philosopher.Result>> columns = Arrays.asList(
+                column().build("Joined", DurationColumn.Unit.MILLIS, results, r -> joinedAfter(r, dinnerStartNanos)),
+                column().build("Lifetime", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getTotalDuration),
+                column().build("Mean hunger", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getMeanHungerDuration),
+                column().build("Rebalancing hunger", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getMeanRebalancingHungerDuration)
+        );
+
+        List<CountColumn<Philosopher.Result>> countColumns = Arrays.asList(
+                CountColumn.build("Meals", results, Philosopher.Result::getMeals),
+                CountColumn.build("Rebalancing meals", results, Philosopher.Result::getRebalancingMeals)
+        );
+
+        List<Philosopher.Result> sorted = results.stream()
+                .sorted(Comparator.comparingLong(Philosopher.Result::getStartNanos))
+                .collect(Collectors.toList());
+
+        return new MembershipResults(sorted, dinnerDuration, columns, countColumns);
+    }
+
+    @Override
+    protected void printHeader() {
+        row()
+                .append(StringUtils.rightPad(" ", Identity.MAX_LENGTH))
+                .with(rb -> durationColumns.forEach(dc -> rb.append(dc.getHeader())))
+                .with(rb -> countColumns.forEach(cc -> rb.append(cc.getHeader())))
+                .print();
+    }
+
+    @Override
+    protected void printResultRow(Philosopher.Result result) {
+        row()
+                .append(StringUtils.rightPad(result.getIdentity().toString(), Identity.MAX_LENGTH))
+                .with(rb -> durationColumns.forEach(dc -> rb.append(dc.formatResult(result))))
+                .with(rb -> countColumns.forEach(cc -> rb.append(cc.formatResult(result))))
+                .print();
+    }
+
+    // Helpers
+
+    private static Duration joinedAfter(Philosopher.Result result, long dinnerStartNanos) {
+        return Duration.ofNanos(Math.max(0, result.getStartNanos() - dinnerStartNanos));
+    }
+
+    private static DurationColumn.DurationColumnBuilder<Philosopher.Result> column() {
+        return DurationColumn.builder();
+    }
+
+}
@@ -4,40 +4,108 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.solveme.philosophers.Identity;
 import org.solveme.philosophers.Philosopher;
+import org.solveme.philosophers.recorders.ConcurrencyRecorder;
 
 import javax.annotation.Nonnull;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.solveme.philosophers.util.Util.OUT;
 
 
 @Slf4j
 public class PhilosopherResults extends ResultTable<Philosopher.Result> {
 
+    private static final int MAX_HUNGER_METRIC = 5;
+    private static final int TOP_COUNT = 5;
+    private static final int SHARE_RANGES = 10;
+
     private final NameColumn nameColumn = new NameColumn();
     private final List<DurationColumn<Philosopher.Result>> durationColumns;
+    private final List<CountColumn<Philosopher.Result>> countColumns;
+    private final ConcurrencyRecorder.Summary concurrency;
+
+    /**
+     * Null if every philosopher has own row
+     */
+    private final ResultSummary<Philosopher.Result> summary;
 
     public PhilosopherResults(@Nonnull List<Philosopher.Result> values,
                               @Nonnull Duration dinnerDuration,
-                              @Nonnull List<DurationColumn<Philosopher.Result>> durationColumns
+                              @Nonnull List<DurationColumn<Philosopher.Result>> durationColumns,
+                              @Nonnull List<CountColumn<Philosopher.Result>> countColumns,
+                              @Nonnull ConcurrencyRecorder.Summary concurrency
+    ) {
+        this(values, dinnerDuration, durationColumns, countColumns, concurrency, null);
+    }
+
+    private PhilosopherResults(@Nonnull List<Philosopher.Result> values,
+                               @Nonnull Duration dinnerDuration,
+                               @Nonnull List<DurationColumn<Philosopher.Result>> durationColumns,
+                               @Nonnull List<CountColumn<Philosopher.Result>> countColumns,
+                               @Nonnull ConcurrencyRecorder.Summary concurrency,
+                               ResultSummary<Philosopher.Result> summary
     ) {
         super(values, dinnerDuration);
         this.durationColumns = durationColumns;
+        this.countColumns = countColumns;
+        this.concurrency = concurrency;
+        this.summary = summary;
     }
 
     public static PhilosopherResults from(@Nonnull List<Philosopher.Result> results,
-                                          @Nonnull Duration dinnerDuration
+                                          @Nonnull Duration dinnerDuration,
+                                          @Nonnull ConcurrencyRecorder.Summary concurrency,
+                                          int maxRows
     ) {
-        List<DurationColumn<Philosopher.Result>> columns = Arrays.asList(
-                column().build("Eating", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getEatingDuration),
-                column().build("Thinking", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getThinkingDuration),
-                column().build("Fork Access", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getForkAccessDuration),
-                column().build("Burden", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getIdleDuration),
-                column().build("Total", DurationColumn.Unit.MILLIS, results, Philosopher.Result::getTotalDuration)
+        List<ResultSummary.Metric<Philosopher.Result>> metrics = Arrays.asList(
+                ResultSummary.Metric.duration("Eating", DurationColumn.Unit.MILLIS, Philosopher.Result::getEatingDuration),
+                ResultSummary.Metric.duration("Thinking", DurationColumn.Unit.MILLIS, Philosopher.Result::getThinkingDuration),
+                ResultSummary.Metric.duration("Fork Access", DurationColumn.Unit.MILLIS, Philosopher.Result::getForkAccessDuration),
+                ResultSummary.Metric.duration("Burden", DurationColumn.Unit.MILLIS, Philosopher.Result::getIdleDuration),
+                ResultSummary.Metric.duration("Total", DurationColumn.Unit.MILLIS, Philosopher.Result::getTotalDuration),
+                ResultSummary.Metric.duration("Max hunger", DurationColumn.Unit.MILLIS, Philosopher.Result::getMaxHungerDuration),
+                ResultSummary.Metric.count("Meals", Philosopher.Result::getMeals),
+                ResultSummary.Metric.count("Attempts", Philosopher.Result::getAcquireAttempts),
+                ResultSummary.Metric.count("Retries", Philosopher.Result::getRetries)
         );
 
-        return new PhilosopherResults(results.stream().sorted().collect(Collectors.toList()), dinnerDuration, columns);
+        if (results.size() <= maxRows) {
+            List<Philosopher.Result> rows = results.stream().sorted().collect(Collectors.toList());
+            return new PhilosopherResults(rows, dinnerDuration, durationColumnsOf(metrics, rows), countColumnsOf(metrics, rows), concurrency);
+        }
+
+        // Only extreme rows are kept, so columns are as wide as their values
+        ResultSummary<Philosopher.Result> summary = ResultSummary.of(results, metrics, metrics.get(MAX_HUNGER_METRIC), TOP_COUNT);
+        List<Philosopher.Result> rows = new ArrayList<>(summary.getHighest());
+        rows.addAll(summary.getLowest());
+        return new PhilosopherResults(rows, dinnerDuration, durationColumnsOf(metrics, rows), countColumnsOf(metrics, rows), concurrency, summary);
+    }
+
+    @Override
+    public void print() {
+        if (summary == null) {
+            super.print();
+        } else {
+            printSummary();
+        }
+        printConcurrency();
+    }
+
+    private void printSummary() {
+        OUT.println(String.format("Summary of %d philosophers:", summary.getCount()));
+        summary.print();
+
+        OUT.println();
+        OUT.println("Longest max hunger:");
+        printHeader();
+        summary.getHighest().forEach(this::printResultRow);
+        OUT.println("Shortest max hunger:");
+        summary.getLowest().forEach(this::printResultRow);
     }
 
     @Override
@@ -45,6 +113,7 @@ public class PhilosopherResults extends ResultTable<Philosopher.Result> {
         row()
                 .append(nameColumn.getHeader())
                 .with(rb -> durationColumns.forEach(dc -> rb.append(dc.getHeader())))
+                .with(rb -> countColumns.forEach(cc -> rb.append(cc.getHeader())))
                 .print();
     }
 
@@ -53,15 +122,61 @@ public class PhilosopherResults extends ResultTable<Philosopher.Result> {
         row()
                 .append(nameColumn.formatResult(result))
                 .with(rb -> durationColumns.forEach(dc -> rb.append(dc.formatResult(result))))
+                .with(rb -> countColumns.forEach(cc -> rb.append(cc.formatResult(result))))
                 .print();
     }
 
+    /**
+     * Amount of concurrent eaters is limited by floor(n/2), since neighbours could never eat at the same time,
+     * n is the peak size of the table, since it could grow due to membership changes
+     */
+    protected void printConcurrency() {
+        OUT.println();
+        OUT.println(String.format("Concurrent eaters: average %.2f, peak %d, bound %d for peak table of %d seats, efficiency %.1f%%",
+                concurrency.getAverage(), concurrency.getPeak(), concurrency.getBound(), concurrency.getSeats(),
+                100 * concurrency.getEfficiency()));
+        if (summary == null) {
+            OUT.println("Time share[%]: " + IntStream.rangeClosed(0, concurrency.getPeak())
+                    .mapToObj(level -> String.format("%d: %.1f", level, 100 * concurrency.getShareOf(level)))
+                    .collect(Collectors.joining("  ")));
+            return;
+        }
+
+        // Levels of large tables are grouped into a few ranges
+        int step = (concurrency.getPeak() + SHARE_RANGES) / SHARE_RANGES;
+        OUT.println("Time share[%]: " + IntStream.iterate(0, from -> from <= concurrency.getPeak(), from -> from + step)
+                .mapToObj(from -> {
+                    int to = Math.min(from + step - 1, concurrency.getPeak());
+                    double share = IntStream.rangeClosed(from, to).mapToDouble(concurrency::getShareOf).sum();
+                    return from == to
+                            ? String.format("%d: %.1f", from, 100 * share)
+                            : String.format("%d-%d: %.1f", from, to, 100 * share);
+                })
+                .collect(Collectors.joining("  ")));
+    }
+
     // Helpers
 
     private static DurationColumn.DurationColumnBuilder<Philosopher.Result> column() {
         return DurationColumn.builder();
     }
 
+    private static List<DurationColumn<Philosopher.Result>> durationColumnsOf(List<ResultSummary.Metric<Philosopher.Result>> metrics,
+                                                                             List<Philosopher.Result> rows) {
+        return metrics.stream()
+                .filter(ResultSummary.Metric::isDuration)
+                .map(m -> column().build(m.getHeader(), m.getUnit(), rows, m.asDuration()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<CountColumn<Philosopher.Result>> countColumnsOf(List<ResultSummary.Metric<Philosopher.Result>> metrics,
+                                                                       List<Philosopher.Result> rows) {
+        return metrics.stream()
+                .filter(m -> !m.isDuration())
+                .map(m -> CountColumn.build(m.getHeader(), rows, m.asCount()))
+                .collect(Collectors.toList());
+    }
+
     static class NameColumn extends ResultColumn<Philosopher.Result, Identity> {
 
         public NameColumn() {
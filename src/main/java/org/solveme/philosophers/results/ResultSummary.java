@@ -0,0 +1,310 @@
+package org.solveme.philosophers.results;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.Identity;
+
+import javax.annotation.Nonnull;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+
+/**
+ * Bounded-memory aggregation of results for large dinners. Every metric is streamed into a log-linear histogram,
+ * so percentiles across rows are reported with relative error below 1/32, and only rows with the biggest and
+ * the smallest rank are kept. Partial summaries are merged, thus large collections are aggregated in parallel.
+ */
+public class ResultSummary<R> {
+
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final List<Metric<R>> metrics;
+    private final Metric<R> rank;
+    private final int topCount;
+
+    private final Histogram[] histograms;
+
+    /**
+     * Heap keeps the smallest rank on top, so it's evicted when a bigger one comes
+     */
+    private final PriorityQueue<R> highest;
+    private final PriorityQueue<R> lowest;
+
+    @Getter
+    private long count;
+
+    private ResultSummary(List<Metric<R>> metrics, Metric<R> rank, int topCount) {
+        this.metrics = metrics;
+        this.rank = rank;
+        this.topCount = topCount;
+        this.histograms = new Histogram[metrics.size()];
+        Arrays.setAll(histograms, i -> new Histogram());
+
+        Comparator<R> byRank = Comparator.comparingLong(rank.getValue());
+        this.highest = new PriorityQueue<>(topCount + 1, byRank);
+        this.lowest = new PriorityQueue<>(topCount + 1, byRank.reversed());
+    }
+
+    public static <R> ResultSummary<R> of(@Nonnull Collection<R> results,
+                                          @Nonnull List<Metric<R>> metrics,
+                                          @Nonnull Metric<R> rank,
+                                          int topCount
+    ) {
+        return of(results, Function.identity(), metrics, rank, topCount);
+    }
+
+    /**
+     * Sources are converted to results while they are streamed, so results are never collected all together
+     */
+    public static <S, R> ResultSummary<R> of(@Nonnull Collection<S> sources,
+                                             @Nonnull Function<? super S, R> toResult,
+                                             @Nonnull List<Metric<R>> metrics,
+                                             @Nonnull Metric<R> rank,
+                                             int topCount
+    ) {
+        return (sources.size() > PARALLEL_THRESHOLD ? sources.parallelStream() : sources.stream()).map(toResult).collect(
+                () -> new ResultSummary<>(metrics, rank, topCount),
+                ResultSummary::add,
+                ResultSummary::merge
+        );
+    }
+
+    void add(R result) {
+        count++;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i].add(metrics.get(i).getValue().applyAsLong(result));
+        }
+
+        offer(highest, result);
+        offer(lowest, result);
+    }
+
+    void merge(ResultSummary<R> other) {
+        count += other.count;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i].merge(other.histograms[i]);
+        }
+
+        other.highest.forEach(r -> offer(highest, r));
+        other.lowest.forEach(r -> offer(lowest, r));
+    }
+
+    private void offer(PriorityQueue<R> top, R result) {
+        top.add(result);
+        if (top.size() > topCount) {
+            top.poll();
+        }
+    }
+
+    /**
+     * @return rows with the biggest rank, the biggest one first
+     */
+    public List<R> getHighest() {
+        return sorted(highest, Comparator.comparingLong(rank.getValue()).reversed());
+    }
+
+    /**
+     * @return rows with the smallest rank, the smallest one first
+     */
+    public List<R> getLowest() {
+        return sorted(lowest, Comparator.comparingLong(rank.getValue()));
+    }
+
+    private static <R> List<R> sorted(Collection<R> rows, Comparator<R> order) {
+        return rows.stream().sorted(order).collect(Collectors.toList());
+    }
+
+    public void print() {
+        List<Row> rows = new ArrayList<>();
+        rows.add(row("min", Histogram::getMin));
+        for (double quantile : QUANTILES) {
+            rows.add(row("p" + StringUtils.removeEnd(String.valueOf(quantile * 100), ".0"), h -> h.getPercentile(quantile)));
+        }
+        rows.add(row("max", Histogram::getMax));
+        rows.add(row("mean", Histogram::getMean));
+
+        new Table(rows, metrics).print();
+    }
+
+    private Row row(String label, ToLongFunction<Histogram> statistic) {
+        return new Row(label, Arrays.stream(histograms).mapToLong(statistic).toArray());
+    }
+
+
+    /**
+     * Column of results, durations are measured in nanos
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Metric<R> {
+
+        private final String header;
+
+        /**
+         * Null for counts
+         */
+        private final DurationColumn.Unit unit;
+        private final ToLongFunction<R> value;
+
+        public static <R> Metric<R> duration(String header, DurationColumn.Unit unit, Function<R, Duration> mapper) {
+            return new Metric<>(header, unit, r -> mapper.apply(r).toNanos());
+        }
+
+        public static <R> Metric<R> count(String header, ToLongFunction<R> mapper) {
+            return new Metric<>(header, null, mapper);
+        }
+
+        public boolean isDuration() {
+            return unit != null;
+        }
+
+        public Function<R, Duration> asDuration() {
+            return r -> Duration.ofNanos(value.applyAsLong(r));
+        }
+
+        public Function<R, Long> asCount() {
+            return value::applyAsLong;
+        }
+
+    }
+
+    /**
+     * Log-linear histogram: each power of two is split into 32 buckets. Negative values, e.g. idle of forks
+     * held after the end of the dinner, are counted in the first bucket, but they are kept as min.
+     */
+    static class Histogram {
+
+        private static final int SUB_BITS = 5;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int SIZE = (Long.SIZE - SUB_BITS) << SUB_BITS;
+
+        private final long[] counts = new long[SIZE];
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        void add(long value) {
+            counts[indexOf(Math.max(0, value))]++;
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < SIZE; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        long getMin() {
+            return count == 0 ? 0 : min;
+        }
+
+        long getMax() {
+            return count == 0 ? 0 : max;
+        }
+
+        long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * @return upper bound of the bucket with the quantile, but never beyond the actual range of values
+         */
+        long getPercentile(double quantile) {
+            long target = Math.max(1, (long) Math.ceil(quantile * count));
+            long cumulative = 0;
+            for (int i = 0; i < SIZE; i++) {
+                cumulative += counts[i];
+                if (cumulative >= target) {
+                    return Math.max(getMin(), Math.min(getMax(), upperBoundOf(i)));
+                }
+            }
+            return getMax();
+        }
+
+        static int indexOf(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+            return ((exponent - SUB_BITS + 1) << SUB_BITS) | sub;
+        }
+
+        static long upperBoundOf(int index) {
+            if (index < SUB_COUNT) {
+                return index;
+            }
+
+            int shift = (index >>> SUB_BITS) - 1;
+            long lower = (long) (SUB_COUNT | (index & (SUB_COUNT - 1))) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class Row {
+
+        private final String label;
+        private final long[] values;
+
+    }
+
+    /**
+     * Statistics are printed as rows of the table with the same columns as the full one
+     */
+    static class Table extends ResultTable<Row> {
+
+        private final List<ResultColumn<Row, ?>> columns = new ArrayList<>();
+
+        Table(List<Row> rows, List<? extends Metric<?>> metrics) {
+            super(rows, Duration.ZERO);
+            for (int i = 0; i < metrics.size(); i++) {
+                int index = i;
+                Metric<?> metric = metrics.get(i);
+                columns.add(metric.isDuration()
+                        ? DurationColumn.<Row>builder().build(metric.getHeader(), metric.getUnit(), rows, r -> Duration.ofNanos(r.getValues()[index]))
+                        : CountColumn.build(metric.getHeader(), rows, r -> r.getValues()[index]));
+            }
+        }
+
+        @Override
+        protected void printHeader() {
+            row()
+                    .append(StringUtils.rightPad(" ", Identity.MAX_LENGTH))
+                    .with(rb -> columns.forEach(c -> rb.append(c.getHeader())))
+                    .print();
+        }
+
+        @Override
+        protected void printResultRow(Row result) {
+            row()
+                    .append(StringUtils.rightPad(result.getLabel(), Identity.MAX_LENGTH))
+                    .with(rb -> columns.forEach(c -> rb.append(c.formatResult(result))))
+                    .print();
+        }
+
+    }
+
+}
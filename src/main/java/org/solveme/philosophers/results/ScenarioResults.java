@@ -0,0 +1,150 @@
+package org.solveme.philosophers.results;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.Philosopher;
+import org.solveme.philosophers.Table;
+import org.solveme.philosophers.workload.Scenario;
+
+import javax.annotation.Nonnull;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.solveme.philosophers.util.Util.OUT;
+
+
+/**
+ * Compares hot philosophers, their neighbours and the rest of the table,
+ * so it's visible how much throughput and latency neighbours lose due to hot spots
+ */
+public class ScenarioResults extends ResultTable<ScenarioResults.GroupSummary> {
+
+    private static final int TITLE_WIDTH = 12;
+    private static final int VALUE_WIDTH = 14;
+    private static final NumberFormat FORMATTER = new DecimalFormat("#.##");
+
+    private final Scenario scenario;
+    private final List<DurationColumn<GroupSummary>> durationColumns;
+
+    public ScenarioResults(@Nonnull Scenario scenario,
+                           @Nonnull List<GroupSummary> values,
+                           @Nonnull Duration dinnerDuration,
+                           @Nonnull List<DurationColumn<GroupSummary>> durationColumns
+    ) {
+        super(values, dinnerDuration);
+        this.scenario = scenario;
+        this.durationColumns = durationColumns;
+    }
+
+    public static ScenarioResults from(@Nonnull Scenario scenario,
+                                       @Nonnull Table table,
+                                       @Nonnull List<Philosopher.Result> results,
+                                       @Nonnull Duration dinnerDuration
+    ) {
+        Map<Scenario.Role, List<Philosopher.Result>> byRole = results.stream()
+                .collect(Collectors.groupingBy(
+                        r -> scenario.roleOf(r.getIdentity().getSeatId(), table),
+                        () -> new EnumMap<>(Scenario.Role.class),
+                        Collectors.toList()
+                ));
+
+        List<GroupSummary> summaries = new ArrayList<>();
+        byRole.forEach((role, members) -> summaries.add(GroupSummary.from(role, members, dinnerDuration)));
+
+        List<DurationColumn<GroupSummary>> columns = Arrays.asList(
+                column().minWidth(VALUE_WIDTH).build("Mean hunger", DurationColumn.Unit.MILLIS, summaries, GroupSummary::getMeanHunger),
+                column().minWidth(VALUE_WIDTH).build("Max hunger", DurationColumn.Unit.MILLIS, summaries, GroupSummary::getMaxHunger)
+        );
+
+        return new ScenarioResults(scenario, summaries, dinnerDuration, columns);
+    }
+
+    @Override
+    public void print() {
+        OUT.println("Scenario: " + scenario);
+        super.print();
+    }
+
+    @Override
+    protected void printHeader() {
+        row()
+                .append(StringUtils.rightPad(" ", TITLE_WIDTH))
+                .appendPadded("Seats", VALUE_WIDTH)
+                .appendPadded("Meals/s", VALUE_WIDTH)
+                .appendPadded("vs others[%]", VALUE_WIDTH)
+                .appendPadded("Eating[%]", VALUE_WIDTH)
+                .with(rb -> durationColumns.forEach(dc -> rb.append(dc.getHeader())))
+                .print();
+    }
+
+    @Override
+    protected void printResultRow(GroupSummary summary) {
+        Optional<GroupSummary> others = values.stream()
+                .filter(s -> s.getRole() == Scenario.Role.DISTANT)
+                .findFirst();
+
+        row()
+                .append(StringUtils.rightPad(summary.getRole().getTitle(), TITLE_WIDTH))
+                .appendPadded(String.valueOf(summary.getSeats()), VALUE_WIDTH)
+                .appendPadded(FORMATTER.format(summary.getMealsPerSecond()), VALUE_WIDTH)
+                .appendPadded(others.filter(o -> o.getMealsPerSecond() > 0)
+                        .map(o -> FORMATTER.format(100 * summary.getMealsPerSecond() / o.getMealsPerSecond()))
+                        .orElse("-"), VALUE_WIDTH)
+                .appendPadded(FORMATTER.format(summary.getEatingShare() * 100), VALUE_WIDTH)
+                .with(rb -> durationColumns.forEach(dc -> rb.append(dc.formatResult(summary))))
+                .print();
+    }
+
+    // Helpers
+
+    private static DurationColumn.DurationColumnBuilder<GroupSummary> column() {
+        return DurationColumn.builder();
+    }
+
+
+    /**
+     * Per-philosopher averages of the group
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class GroupSummary {
+
+        private final Scenario.Role role;
+        private final int seats;
+        private final double mealsPerSecond;
+        private final double eatingShare;
+        private final Duration meanHunger;
+        private final Duration maxHunger;
+
+        public static GroupSummary from(Scenario.Role role, List<Philosopher.Result> members, Duration dinnerDuration) {
+            double seconds = Math.max(dinnerDuration.toNanos(), 1) / 1e9;
+            long meals = members.stream().mapToLong(Philosopher.Result::getMeals).sum();
+            long eatingNanos = members.stream().mapToLong(r -> r.getEatingDuration().toNanos()).sum();
+            long hungerNanos = members.stream().mapToLong(r -> r.getHungerDuration().toNanos()).sum();
+            Duration maxHunger = members.stream()
+                    .map(Philosopher.Result::getMaxHungerDuration)
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ZERO);
+
+            return new GroupSummary(
+                    role,
+                    members.size(),
+                    meals / seconds / members.size(),
+                    eatingNanos / (seconds * 1e9) / members.size(),
+                    Duration.ofNanos(meals == 0 ? 0 : hungerNanos / meals),
+                    maxHunger
+            );
+        }
+
+    }
+
+}
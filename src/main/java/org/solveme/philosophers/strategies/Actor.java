@@ -0,0 +1,322 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Message passing variation of {@link Atomic} approach. Each fork is an actor, which owns its state exclusively:
+ * philosophers send take/release messages into lock-free mailbox of the fork, and the fork processes them
+ * one by one on a {@link ForkJoinPool}, replying to take requests asynchronously. No state of the fork is shared,
+ * the only contended places are mailboxes and the scheduling flag of an actor.
+ */
+@Slf4j
+public class Actor extends Dinner<Actor.ActorFork, Actor.ActorPhilosopher> {
+
+    private final Stage stage;
+
+    public Actor(DinnerApp.Settings settings) {
+        super(settings);
+        stage = new Stage(settings.getEngineThreads());
+    }
+
+    @Override
+    public ActorFork buildFork(Dinner<ActorFork, ActorPhilosopher> dinner, int forkId) {
+        return new ActorFork(forkId, stage);
+    }
+
+    @Override
+    public ActorPhilosopher buildPhilosopher(Dinner<ActorFork, ActorPhilosopher> dinner, Identity identity) {
+        return new ActorPhilosopher(dinner, identity);
+    }
+
+    @Override
+    protected void beforeResults() {
+        stage.stop();
+    }
+
+
+    /**
+     * Pool with statistics shared by all actors
+     */
+    @Slf4j
+    static class Stage {
+
+        /**
+         * Amount of messages processed by an actor before it gives the thread to other actors
+         */
+        private static final int THROUGHPUT = 32;
+
+        private static final long STOP_TIMEOUT_SECONDS = 1;
+
+        private final ForkJoinPool pool;
+
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder activations = new LongAdder();
+        private final LongAdder refusals = new LongAdder();
+
+        Stage(int threads) {
+            this.pool = new ForkJoinPool(
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                    pool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName(StringUtils.leftPad("Actor" + thread.getPoolIndex(), Identity.MAX_LENGTH));
+                        return thread;
+                    },
+                    null,
+                    // FIFO order of never joined tasks
+                    true
+            );
+        }
+
+        /**
+         * Messages, which are sent before stopping, are still processed, so released forks are recorded
+         */
+        void stop() {
+            // Actor reschedules itself while its mailbox is not empty, so the pool is shut down only when it's quiet
+            if (!pool.awaitQuiescence(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Actors have not processed all messages in {} seconds", STOP_TIMEOUT_SECONDS);
+            }
+            pool.shutdown();
+            try {
+                pool.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for actors to stop");
+                Thread.currentThread().interrupt();
+            }
+
+            long activationCount = activations.sum();
+            log.info("Actors on {} threads processed {} messages in {} activations ({} per activation), refused to give fork {} times",
+                    pool.getParallelism(), messages.sum(), activationCount,
+                    String.format("%.2f", activationCount == 0 ? 0D : (double) messages.sum() / activationCount), refusals.sum());
+        }
+
+    }
+
+    /**
+     * Holder is changed only by the actor itself, other threads could see stale holder in reports
+     */
+    static class ActorFork extends Fork implements Runnable {
+
+        private static final int TAKE = 1;
+        private static final int RELEASE = 2;
+
+        private final Stage stage;
+        private final Mailbox mailbox = new Mailbox();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        private int holder = FREE_FLAG;
+
+        public ActorFork(int id, Stage stage) {
+            super(id);
+            this.stage = stage;
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        /**
+         * Could be called by any philosopher thread
+         */
+        void send(int type, ActorPhilosopher sender) {
+            mailbox.offer(new Message(type, sender));
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                stage.pool.execute(this);
+            }
+        }
+
+        /**
+         * Only one thread processes messages of the actor at any moment, the flag publishes the state to the next one
+         */
+        @Override
+        public void run() {
+            int processed = 0;
+            Message message;
+            while (processed < Stage.THROUGHPUT && (message = mailbox.poll()) != null) {
+                receive(message);
+                processed++;
+            }
+
+            stage.messages.add(processed);
+            stage.activations.increment();
+
+            scheduled.set(false);
+            if (!mailbox.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void receive(Message message) {
+            ActorPhilosopher sender = message.sender;
+
+            switch (message.type) {
+                case TAKE:
+                    boolean taken = take(sender.getIdentity());
+                    if (!taken) {
+                        stage.refusals.increment();
+                    }
+                    sender.reply(taken);
+                    break;
+
+                case RELEASE:
+                    release(sender.getIdentity());
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unknown message type " + message.type);
+            }
+        }
+
+        @Override
+        protected boolean take0(Identity identity) {
+            if (holder != FREE_FLAG) {
+                return false;
+            }
+            holder = identity.getSeatId();
+            return true;
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+            holder = FREE_FLAG;
+        }
+
+    }
+
+    static class ActorPhilosopher extends ThreadedPhilosopher<ActorFork, ActorPhilosopher> {
+
+        private static final int PENDING = 0;
+        private static final int GRANTED = 1;
+        private static final int REFUSED = 2;
+
+        private volatile int reply = PENDING;
+        private volatile Thread waiter;
+
+        public ActorPhilosopher(Dinner<ActorFork, ActorPhilosopher> dinner, Identity identity) {
+            super(dinner, identity);
+        }
+
+        @Override
+        public boolean acquireForks0() {
+            if (ask(leftFork)) {
+                if (ask(rightFork)) {
+                    return true;
+                } else {
+                    leftFork.send(ActorFork.RELEASE, this);
+                    return false;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Actor always replies, so the reply is awaited even after shutdown, otherwise the fork could be left taken
+         */
+        private boolean ask(ActorFork fork) {
+            reply = PENDING;
+            waiter = Thread.currentThread();
+            fork.send(ActorFork.TAKE, this);
+
+            boolean interrupted = false;
+            while (reply == PENDING) {
+                LockSupport.park(fork);
+                interrupted |= Thread.interrupted();
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            return reply == GRANTED;
+        }
+
+        @Override
+        public void releaseForks0() {
+            rightFork.send(ActorFork.RELEASE, this);
+            leftFork.send(ActorFork.RELEASE, this);
+        }
+
+        /**
+         * Called by the actor of the fork
+         */
+        void reply(boolean granted) {
+            reply = granted ? GRANTED : REFUSED;
+            LockSupport.unpark(waiter);
+        }
+
+    }
+
+    private static class Message {
+
+        private final int type;
+        private final ActorPhilosopher sender;
+
+        /**
+         * Written by the producer before the message is linked, read by the consumer after it's linked
+         */
+        private volatile Message next;
+
+        Message(int type, ActorPhilosopher sender) {
+            this.type = type;
+            this.sender = sender;
+        }
+
+    }
+
+    /**
+     * Multi-producer single-consumer linked queue: producers swap the tail with a single atomic operation
+     * and link the previous tail to the new message, consumer follows links from the stub head
+     */
+    static class Mailbox {
+
+        private final AtomicReference<Message> tail;
+        private Message head;
+
+        Mailbox() {
+            Message stub = new Message(0, null);
+            this.head = stub;
+            this.tail = new AtomicReference<>(stub);
+        }
+
+        void offer(Message message) {
+            Message previous = tail.getAndSet(message);
+            // Consumer doesn't see the message until it's linked, so it's processed in the next activation
+            previous.next = message;
+        }
+
+        /**
+         * Could be called only by the consumer
+         */
+        Message poll() {
+            Message next = head.next;
+            if (next == null) {
+                return null;
+            }
+            head = next;
+            return next;
+        }
+
+        boolean isEmpty() {
+            return head.next == null && tail.get() == head;
+        }
+
+    }
+
+}
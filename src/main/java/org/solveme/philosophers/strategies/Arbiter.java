@@ -0,0 +1,277 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.*;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Variation of {@link Managed} approach, where arbitration is performed by a dedicated 'Arbiter' thread instead of
+ * philosopher threads. Philosophers publish acquire/release requests into pre-allocated lock-free {@link RequestRing}
+ * and park until the arbiter grants them forks. Arbiter drains all published requests as a single batch,
+ * then grants forks to as many waiting philosophers as possible and unparks them.
+ * <p>
+ * Waiting philosophers are served in FIFO order: forks wanted by earlier waiter could not be granted to later one,
+ * so nobody starves.
+ */
+public class Arbiter extends Dinner<Arbiter.ArbiterFork, Arbiter.ArbiterPhilosopher> {
+
+    private final Steward steward;
+
+    public Arbiter(DinnerApp.Settings settings) {
+        super(settings);
+        steward = new Steward(this);
+    }
+
+    @Override
+    public ArbiterFork buildFork(Dinner<ArbiterFork, ArbiterPhilosopher> dinner, int forkId) {
+        return new ArbiterFork(forkId);
+    }
+
+    @Override
+    public ArbiterPhilosopher buildPhilosopher(Dinner<ArbiterFork, ArbiterPhilosopher> dinner, Identity identity) {
+        return new ArbiterPhilosopher(dinner, identity, steward);
+    }
+
+    @Override
+    public void start() {
+        steward.start();
+        super.start();
+    }
+
+    @Override
+    protected void beforeResults() {
+        steward.stop();
+    }
+
+    /**
+     * Fork state is changed only by arbiter thread
+     */
+    static class ArbiterFork extends Fork {
+
+        private volatile int holder = FREE_FLAG;
+
+        public ArbiterFork(int id) {
+            super(id);
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        @Override
+        protected boolean take0(Identity identity) {
+            holder = identity.getSeatId();
+            return true;
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+            holder = FREE_FLAG;
+        }
+
+    }
+
+    static class ArbiterPhilosopher extends ThreadedPhilosopher<ArbiterFork, ArbiterPhilosopher> {
+
+        private final Steward steward;
+        private final PendingRequest request = new PendingRequest();
+
+        public ArbiterPhilosopher(Dinner<ArbiterFork, ArbiterPhilosopher> dinner, Identity identity, Steward steward) {
+            super(dinner, identity);
+            this.steward = steward;
+        }
+
+        @Override
+        public boolean acquireForks0() {
+            request.open();
+            steward.publish(RequestRing.ACQUIRE, this);
+
+            return request.await(steward, this::isShutdown, () -> steward.publish(RequestRing.CANCEL, this));
+        }
+
+        @Override
+        public void releaseForks0() {
+            steward.publish(RequestRing.RELEASE, this);
+        }
+
+        void grant() {
+            request.complete(true);
+        }
+
+    }
+
+    /**
+     * Arbiter thread with its single-threaded state. Everything except {@link #publish(int, ArbiterPhilosopher)}
+     * is called only within arbiter thread.
+     */
+    @Slf4j
+    static class Steward implements Runnable {
+
+        private static final int SPINS_BEFORE_PARK = 100;
+        private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        private final Arbiter dinner;
+        private final RequestRing ring;
+        private final Thread thread;
+
+        private final ArrayDeque<Integer> waiting = new ArrayDeque<>();
+        private final int[] wantedLeftForks;
+        private final int[] wantedRightForks;
+        private final BitSet claimedForks;
+
+        private volatile boolean running = true;
+
+        private long batches;
+        private long requests;
+        private long grants;
+
+        Steward(Arbiter dinner) {
+            this.dinner = dinner;
+            this.ring = new RequestRing(4 * dinner.getSeatCapacity(), this::wakeUp);
+            this.wantedLeftForks = new int[dinner.getSeatCapacity()];
+            this.wantedRightForks = new int[dinner.getSeatCapacity()];
+            this.claimedForks = new BitSet(dinner.getForkCount());
+            this.thread = new Thread(this, StringUtils.leftPad("Arbiter", Identity.MAX_LENGTH));
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        /**
+         * Requests, which are published before stopping, are still processed, so released forks are recorded
+         */
+        void stop() {
+            running = false;
+            wakeUp();
+            try {
+                thread.join();
+
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for arbiter to stop");
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Could be called by any philosopher thread
+         */
+        void publish(int type, ArbiterPhilosopher philosopher) {
+            ring.publish(type, philosopher.getSeatId(), philosopher.getLeftFork().getId(), philosopher.getRightFork().getId());
+        }
+
+        private void wakeUp() {
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            int idleSpins = 0;
+
+            while (running) {
+                int processed = ring.drain(this::handle);
+
+                if (processed > 0) {
+                    batches++;
+                    requests += processed;
+                    grantWaiting();
+                    idleSpins = 0;
+
+                } else if (idleSpins++ < SPINS_BEFORE_PARK) {
+                    Thread.yield();
+
+                } else {
+                    ring.setSleeping(true);
+                    if (ring.isEmpty() && running) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    ring.setSleeping(false);
+                }
+            }
+
+            // Everybody has finished, so only releases are left and nobody is waiting for a grant
+            requests += ring.drain(this::handle);
+
+            log.info("Arbiter processed {} requests in {} batches ({} per batch), granted forks {} times",
+                    requests, batches, String.format("%.2f", batches == 0 ? 0D : (double) requests / batches), grants);
+        }
+
+        private void handle(int type, int seatId, int leftForkId, int rightForkId) {
+            switch (type) {
+                case RequestRing.ACQUIRE:
+                    wantedLeftForks[seatId] = leftForkId;
+                    wantedRightForks[seatId] = rightForkId;
+                    waiting.add(seatId);
+                    break;
+
+                case RequestRing.RELEASE:
+                    releaseForks(seatId, leftForkId, rightForkId);
+                    break;
+
+                case RequestRing.CANCEL:
+                    if (!waiting.remove(seatId)) {
+                        releaseForks(seatId, leftForkId, rightForkId);
+                    }
+                    break;
+
+                default:
+                    throw new IllegalStateException("Unknown request type " + type);
+            }
+        }
+
+        private void releaseForks(int seatId, int leftForkId, int rightForkId) {
+            Identity identity = Identity.at(seatId);
+            ArbiterFork leftFork = dinner.getForkById(leftForkId);
+            ArbiterFork rightFork = dinner.getForkById(rightForkId);
+
+            if (rightFork.getHolderId() == seatId) {
+                rightFork.release(identity);
+            }
+            if (leftFork.getHolderId() == seatId) {
+                leftFork.release(identity);
+            }
+        }
+
+        private void grantWaiting() {
+            claimedForks.clear();
+
+            Iterator<Integer> iterator = waiting.iterator();
+            while (iterator.hasNext()) {
+                int seatId = iterator.next();
+                int leftForkId = wantedLeftForks[seatId];
+                int rightForkId = wantedRightForks[seatId];
+                ArbiterFork leftFork = dinner.getForkById(leftForkId);
+                ArbiterFork rightFork = dinner.getForkById(rightForkId);
+
+                boolean available = !leftFork.isBusy() && !rightFork.isBusy()
+                        && !claimedForks.get(leftForkId) && !claimedForks.get(rightForkId);
+
+                if (available) {
+                    Identity identity = Identity.at(seatId);
+                    leftFork.take(identity);
+                    rightFork.take(identity);
+                    iterator.remove();
+                    grants++;
+                    dinner.getPhilosopherBySeatId(seatId).grant();
+
+                } else {
+                    // Preserve forks for the earlier waiter
+                    claimedForks.set(leftForkId);
+                    claimedForks.set(rightForkId);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,372 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Non-blocking engine, where philosophers don't have own threads. Each philosopher is a state machine
+ * (HUNGRY -> EATING -> THINKING), which is driven by {@link CompletableFuture} continuations on a small fixed
+ * executor: eating and thinking are scheduled delays, and acquiring of a fork returns a future, which is completed
+ * when the fork is handed over to the philosopher.
+ * <p>
+ * Busy fork keeps FIFO queue of waiters and is handed over directly to the next one on release. Forks are acquired
+ * in order of their ids, so there is no cycle of waiters and nobody starves.
+ */
+public class Async extends Dinner<Async.AsyncFork, Async.AsyncPhilosopher> {
+
+    private final Engine engine;
+
+    public Async(DinnerApp.Settings settings) {
+        // The engine is the only party of the coordinator, philosophers are not threads
+        super(settings, new Coordinator<>(0));
+        engine = new Engine(settings.getEngineThreads());
+    }
+
+    @Override
+    public AsyncFork buildFork(Dinner<AsyncFork, AsyncPhilosopher> dinner, int forkId) {
+        return new AsyncFork(forkId, engine);
+    }
+
+    @Override
+    public AsyncPhilosopher buildPhilosopher(Dinner<AsyncFork, AsyncPhilosopher> dinner, Identity identity) {
+        return new AsyncPhilosopher(this, identity, engine);
+    }
+
+    @Override
+    protected Runner buildRunner(AsyncPhilosopher philosopher, boolean initial) {
+        return null;
+    }
+
+    @Override
+    protected void awaitStart() {
+        coordinator.joined();
+        engine.start(seatedPhilosophers(), coordinator);
+    }
+
+    @Override
+    protected void beforeResults() {
+        engine.stop();
+    }
+
+    /**
+     * Philosophers are not threads, so they could not be rewired at their safe points
+     */
+    @Override
+    protected boolean supportsMembershipChanges() {
+        return false;
+    }
+
+
+    /**
+     * Small fixed pool of threads, which runs all continuations and schedules all delays
+     */
+    @Slf4j
+    static class Engine {
+
+        private final ScheduledThreadPoolExecutor executor;
+        private final AtomicInteger dining = new AtomicInteger();
+
+        private final LongAdder delays = new LongAdder();
+        private final LongAdder handovers = new LongAdder();
+
+        Engine(int threads) {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = new ScheduledThreadPoolExecutor(
+                    threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, StringUtils.leftPad("Engine" + counter.getAndIncrement(), Identity.MAX_LENGTH));
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+            this.executor.setRemoveOnCancelPolicy(true);
+        }
+
+        /**
+         * Coordinator is notified when the last philosopher has finished
+         */
+        void start(Iterable<AsyncPhilosopher> philosophers, Dinner.Coordinator<?, ?> coordinator) {
+            dining.incrementAndGet();
+            for (AsyncPhilosopher philosopher : philosophers) {
+                dining.incrementAndGet();
+                execute(() -> philosopher.dine().whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        log.error("{} failed", philosopher.getIdentity(), failure);
+                    } else {
+                        coordinator.collect(result);
+                    }
+                    finishOne(coordinator);
+                }));
+            }
+            finishOne(coordinator);
+        }
+
+        private void finishOne(Dinner.Coordinator<?, ?> coordinator) {
+            if (dining.decrementAndGet() == 0) {
+                coordinator.finished();
+            }
+        }
+
+        void stop() {
+            executor.shutdownNow();
+            log.info("Engine with {} threads scheduled {} delays, forks were handed over to waiters {} times",
+                    executor.getCorePoolSize(), delays.sum(), handovers.sum());
+        }
+
+        CompletableFuture<Void> delay(long millis) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            delays.increment();
+            executor.schedule(() -> future.complete(null), millis, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+        void execute(Runnable task) {
+            executor.execute(task);
+        }
+
+    }
+
+    /**
+     * Fork with FIFO queue of waiters, which is guarded by the fork monitor
+     */
+    static class AsyncFork extends Fork {
+
+        private final Engine engine;
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private volatile int holder = FREE_FLAG;
+
+        public AsyncFork(int id, Engine engine) {
+            super(id);
+            this.engine = engine;
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        /**
+         * @return future, which is completed when the fork is taken by the philosopher
+         */
+        CompletableFuture<Void> acquire(Identity identity) {
+            synchronized (this) {
+                if (holder == FREE_FLAG) {
+                    hold(identity.getSeatId());
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                Waiter waiter = new Waiter(identity.getSeatId());
+                waiters.add(waiter);
+                return waiter.taken;
+            }
+        }
+
+        @Override
+        protected synchronized boolean take0(Identity identity) {
+            if (holder != FREE_FLAG) {
+                return false;
+            }
+            holder = identity.getSeatId();
+            return true;
+        }
+
+        /**
+         * Hands the fork over to the next waiter, its continuation is run by the engine instead of the releasing one
+         */
+        @Override
+        protected void release0(Identity identity) {
+            Waiter next;
+            synchronized (this) {
+                assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+                next = waiters.poll();
+                if (next != null) {
+                    hold(next.seatId);
+                } else {
+                    holder = FREE_FLAG;
+                }
+            }
+
+            if (next != null) {
+                engine.handovers.increment();
+                engine.execute(() -> next.taken.complete(null));
+            }
+        }
+
+        private void hold(int seatId) {
+            holder = seatId;
+            takenTimestamp = System.nanoTime();
+        }
+
+        private static class Waiter {
+
+            private final int seatId;
+            private final CompletableFuture<Void> taken = new CompletableFuture<>();
+
+            Waiter(int seatId) {
+                this.seatId = seatId;
+            }
+
+        }
+
+    }
+
+    /**
+     * Every step is a continuation of the previous one, so steps of the same philosopher are never run
+     * concurrently and recorders are updated as within a single thread
+     */
+    @Slf4j
+    static class AsyncPhilosopher extends Philosopher<AsyncFork, AsyncPhilosopher> {
+
+        enum State {
+            HUNGRY,
+            EATING,
+            THINKING,
+            DONE
+        }
+
+        private final Async async;
+        private final Engine engine;
+        private final CompletableFuture<Result> done = new CompletableFuture<>();
+
+        private volatile State state = State.HUNGRY;
+        private long startNanos;
+
+        public AsyncPhilosopher(Async dinner, Identity identity, Engine engine) {
+            super(dinner, identity);
+            this.async = dinner;
+            this.engine = engine;
+        }
+
+        @Override
+        protected boolean isShutdown() {
+            return async.isShutdown();
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * @return future of the result, which is completed when philosopher has finished the dinner
+         */
+        CompletableFuture<Result> dine() {
+            startNanos = System.nanoTime();
+            getTimeRecorder().recordStart();
+            hungry();
+            return done;
+        }
+
+        /**
+         * Steps after the first one are run by the engine, the calling thread only waits for the result
+         */
+        @Override
+        public Result run() {
+            return dine().join();
+        }
+
+        private void hungry() {
+            if (isShutdown()) {
+                finish();
+                return;
+            }
+
+            state = State.HUNGRY;
+            long attemptStart = System.nanoTime();
+            getTimeRecorder().recordHungry(attemptStart);
+
+            AsyncFork first = leftFork.getId() < rightFork.getId() ? leftFork : rightFork;
+            AsyncFork second = first == leftFork ? rightFork : leftFork;
+
+            step(first.acquire(identity).thenCompose(taken -> second.acquire(identity)), () -> {
+                // Waiters get forks even after shutdown, otherwise their neighbours would never finish
+                boolean acquired = !isShutdown();
+                dinner.getLiveRecorder().recordAttempt(System.nanoTime() - attemptStart);
+                long hungerNanos = getTimeRecorder().recordAcquiring(attemptStart, acquired, false);
+
+                if (acquired) {
+                    dinner.getLiveRecorder().recordMeal(hungerNanos);
+                    eating();
+                } else {
+                    rightFork.release(identity);
+                    leftFork.release(identity);
+                    finish();
+                }
+            });
+        }
+
+        private void eating() {
+            state = State.EATING;
+            long eatingStart = System.nanoTime();
+            dinner.getConcurrencyRecorder().recordEatingStart();
+
+            step(engine.delay(calculateEatingDurationMillis()), () -> {
+                long eatingNanos = System.nanoTime() - eatingStart;
+                dinner.getConcurrencyRecorder().recordEatingEnd();
+                getTimeRecorder().recordEating(eatingNanos);
+                dinner.getLiveRecorder().recordEating(getSeatId(), eatingNanos);
+                releasing();
+            });
+        }
+
+        /**
+         * Hot forks are held for a while without blocking the engine thread
+         */
+        private void releasing() {
+            long releaseDelayMillis = Math.max(leftFork.getReleaseDelayMillis(), rightFork.getReleaseDelayMillis());
+            CompletableFuture<Void> delay = releaseDelayMillis > 0
+                    ? engine.delay(releaseDelayMillis)
+                    : CompletableFuture.completedFuture(null);
+
+            step(delay, () -> {
+                getTimeRecorder().recordForkAccess(() -> {
+                    rightFork.release(identity);
+                    leftFork.release(identity);
+                });
+                thinking();
+            });
+        }
+
+        private void thinking() {
+            if (isShutdown()) {
+                finish();
+                return;
+            }
+
+            state = State.THINKING;
+            long thinkingStart = System.nanoTime();
+
+            step(engine.delay(calculateThinkingDurationMillis()), () -> {
+                getTimeRecorder().recordThinking(System.nanoTime() - thinkingStart);
+                hungry();
+            });
+        }
+
+        private void finish() {
+            state = State.DONE;
+            getTimeRecorder().recordTotal(System.nanoTime() - startNanos);
+            log.info(identity + " finished the dinner");
+            done.complete(Result.from(identity, getTimeRecorder()));
+        }
+
+        /**
+         * Failure of any step finishes the dinner of philosopher, otherwise nobody would notice it
+         */
+        private void step(CompletableFuture<?> future, Runnable next) {
+            future.thenRun(next).exceptionally(failure -> {
+                done.completeExceptionally(failure);
+                return null;
+            });
+        }
+
+    }
+
+}
@@ -4,15 +4,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.solveme.philosophers.*;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
  * Solution that utilizes CAS features of AtomicInteger for handling forks acquiring and releasing
+ * <p>
+ * Philosopher, who loses the race too many times in a row, could be starving: with enabled aging it publishes
+ * its hunger on both forks, and neighbours yield these forks to it until it has eaten. Nobody publishes
+ * anything while there is no starving philosopher, so the fast path stays the same.
  */
+@Slf4j
 public class Atomic extends Dinner<Atomic.AtomicFork, Atomic.AtomicPhilosopher> {
 
+    private final Aging aging;
+
     public Atomic(DinnerApp.Settings settings) {
         super(settings);
+        aging = new Aging(settings.getAgingAttempts());
     }
 
     @Override
@@ -22,7 +32,45 @@ public class Atomic extends Dinner<Atomic.AtomicFork, Atomic.AtomicPhilosopher>
 
     @Override
     public AtomicPhilosopher buildPhilosopher(Dinner<AtomicFork, AtomicPhilosopher> dinner, Identity identity) {
-        return new AtomicPhilosopher(dinner, identity);
+        return new AtomicPhilosopher(dinner, identity, aging);
+    }
+
+    @Override
+    protected void beforeResults() {
+        if (aging.isEnabled()) {
+            log.info("Philosophers yielded forks to starving neighbours {} times, the longest run of failed attempts was {}",
+                    aging.yields.sum(), aging.maxHunger.get());
+        }
+    }
+
+
+    /**
+     * Hunger aging settings and statistics shared by all philosophers
+     */
+    static class Aging {
+
+        private final int threshold;
+
+        private final LongAdder yields = new LongAdder();
+        private final LongAccumulator maxHunger = new LongAccumulator(Math::max, 0);
+
+        Aging(int threshold) {
+            this.threshold = threshold;
+        }
+
+        boolean isEnabled() {
+            return threshold > 0;
+        }
+
+        /**
+         * Priorities are totally ordered by hunger and then by seat, so there is no cycle of yielding philosophers
+         *
+         * @return zero for philosopher, who is not starving
+         */
+        long priorityOf(int hunger, int seatId) {
+            return hunger < threshold ? 0 : (long) hunger << Integer.SIZE | (Integer.MAX_VALUE - seatId);
+        }
+
     }
 
     @Slf4j
@@ -30,6 +78,12 @@ public class Atomic extends Dinner<Atomic.AtomicFork, Atomic.AtomicPhilosopher>
 
         private final AtomicInteger holder = new AtomicInteger(FREE_FLAG);
 
+        /**
+         * Priorities published by users of the fork, see {@link Aging#priorityOf(int, int)}
+         */
+        private volatile long leftUserPriority;
+        private volatile long rightUserPriority;
+
         public AtomicFork(int id) {
             super(id);
         }
@@ -47,20 +101,47 @@ public class Atomic extends Dinner<Atomic.AtomicFork, Atomic.AtomicPhilosopher>
         @Override
         protected void release0(Identity identity) {
             // Invariant guard: only holder is allowed to release fork
-            assert holder.get() != identity.getSeatId() : identity + " is not a holder of #" + id;
+            assert holder.get() == identity.getSeatId() : identity + " is not a holder of #" + id;
             holder.compareAndSet(identity.getSeatId(), FREE_FLAG);
         }
 
     }
 
-    static class AtomicPhilosopher extends Philosopher<AtomicFork, AtomicPhilosopher> {
+    static class AtomicPhilosopher extends ThreadedPhilosopher<AtomicFork, AtomicPhilosopher> {
 
-        public AtomicPhilosopher(Dinner<AtomicFork, AtomicPhilosopher> dinner, Identity identity) {
+        private final Aging aging;
+
+        /**
+         * Failed attempts in a row
+         */
+        private int hunger;
+        private long priority;
+
+        public AtomicPhilosopher(Dinner<AtomicFork, AtomicPhilosopher> dinner, Identity identity, Aging aging) {
             super(dinner, identity);
+            this.aging = aging;
         }
 
         @Override
         public boolean acquireForks0() {
+            if (!aging.isEnabled()) {
+                return takeForks();
+            }
+
+            // Hunger isn't increased by yielding, otherwise neighbours would take turns to outrun each other
+            if (leftFork.leftUserPriority > priority || rightFork.rightUserPriority > priority) {
+                aging.yields.increment();
+                return false;
+            }
+
+            boolean acquired = takeForks();
+            hunger = acquired ? 0 : hunger + 1;
+            aging.maxHunger.accumulate(hunger);
+            publish(aging.priorityOf(hunger, getSeatId()));
+            return acquired;
+        }
+
+        private boolean takeForks() {
             if (leftFork.take(identity)) {
                 if (rightFork.take(identity)) {
                     return true;
@@ -73,6 +154,28 @@ public class Atomic extends Dinner<Atomic.AtomicFork, Atomic.AtomicPhilosopher>
             return false;
         }
 
+        /**
+         * Volatile writes are skipped, while priority stays the same
+         */
+        private void publish(long newPriority) {
+            if (newPriority != priority) {
+                priority = newPriority;
+                leftFork.rightUserPriority = newPriority;
+                rightFork.leftUserPriority = newPriority;
+            }
+        }
+
+        @Override
+        protected void onRewired(AtomicFork previousRightFork) {
+            previousRightFork.leftUserPriority = 0;
+            rightFork.leftUserPriority = priority;
+        }
+
+        @Override
+        protected void onLeave() {
+            publish(0);
+        }
+
         @Override
         public void releaseForks0() {
             rightFork.release(identity);
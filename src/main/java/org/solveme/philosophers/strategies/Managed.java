@@ -65,7 +65,7 @@ public class Managed extends Dinner<Managed.ManagedFork, Managed.ManagedPhilosop
 
     }
 
-    static class ManagedPhilosopher extends Philosopher<ManagedFork, ManagedPhilosopher> {
+    static class ManagedPhilosopher extends ThreadedPhilosopher<ManagedFork, ManagedPhilosopher> {
 
         private final Waiter waiter;
 
@@ -84,6 +84,16 @@ public class Managed extends Dinner<Managed.ManagedFork, Managed.ManagedPhilosop
             waiter.releaseForks(this);
         }
 
+        @Override
+        protected void onRewired(ManagedFork previousRightFork) {
+            waiter.cancelReservations(this, previousRightFork);
+        }
+
+        @Override
+        protected void onLeave() {
+            waiter.cancelReservations(this, leftFork, rightFork);
+        }
+
     }
 
     @Slf4j
@@ -209,6 +219,20 @@ public class Managed extends Dinner<Managed.ManagedFork, Managed.ManagedPhilosop
             }
         }
 
+        /**
+         * Drops reservations of philosopher, that doesn't need given forks anymore (due to leaving the dinner
+         * or switching forks), otherwise nobody else would be able to reserve them
+         */
+        public void cancelReservations(ManagedPhilosopher philosopher, Fork... forks) {
+            synchronized (mutex) {
+                for (Fork fork : forks) {
+                    finishReservation(fork, philosopher.getIdentity());
+                }
+
+                mutex.notifyAll();
+            }
+        }
+
         @Nonnull
         private Reservation releaseFork(Fork fork, ManagedPhilosopher oldOwner) {
             fork.release(oldOwner.getIdentity());
@@ -0,0 +1,431 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.solveme.philosophers.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+
+/**
+ * Variation of {@link Atomic} approach, where forks are shared by several local processes. Holders of forks are
+ * kept in a memory-mapped file and are changed by CAS via {@link VarHandle}, and each process hosts a slice
+ * of contiguous seats, so forks between slices are contended across processes.
+ * <p>
+ * The first slice creates the shared table, others attach to it, and the dinner is started when all of them
+ * are ready. Each process shows results of its own philosophers.
+ */
+@Slf4j
+public class Mapped extends Dinner<Mapped.MappedFork, Mapped.MappedPhilosopher> {
+
+    private final SharedTable sharedTable;
+
+    public Mapped(DinnerApp.Settings settings) {
+        super(settings);
+
+        Path file = settings.getSharedTableFile() != null
+                ? settings.getSharedTableFile()
+                : Paths.get(System.getProperty("java.io.tmpdir"), "philosophers.table");
+        sharedTable = settings.getSliceIndex() == 0
+                ? SharedTable.create(file, getForkCount(), settings.getSliceCount())
+                : SharedTable.attach(file, getForkCount(), settings.getSliceCount());
+
+        log.info("Slice {} of {} hosts {} of {} seats, forks are shared via {}",
+                settings.getSliceIndex(), settings.getSliceCount(), settings.getHostedSeatCount(), getSeatCount(), file);
+    }
+
+    @Override
+    public MappedFork buildFork(Dinner<MappedFork, MappedPhilosopher> dinner, int forkId) {
+        return new MappedFork(forkId, sharedTable, settings);
+    }
+
+    @Override
+    public MappedPhilosopher buildPhilosopher(Dinner<MappedFork, MappedPhilosopher> dinner, Identity identity) {
+        return new MappedPhilosopher(dinner, identity);
+    }
+
+    @Override
+    protected void awaitStart() {
+        sharedTable.awaitSlices(settings.getSliceIndex(), this::isShutdown);
+    }
+
+    @Override
+    protected void beforeResults() {
+        log.info("Forks were busy {} times, {} of them were held by other processes",
+                sharedTable.busy.sum(), sharedTable.remoteBusy.sum());
+        sharedTable.close(settings.getSliceIndex() == 0);
+    }
+
+    @Override
+    protected boolean supportsMembershipChanges() {
+        return false;
+    }
+
+
+    static class MappedFork extends Fork {
+
+        private final SharedTable sharedTable;
+        private final DinnerApp.Settings settings;
+
+        public MappedFork(int id, SharedTable sharedTable, DinnerApp.Settings settings) {
+            super(id);
+            this.sharedTable = sharedTable;
+            this.settings = settings;
+        }
+
+        @Override
+        public int getHolderId() {
+            return sharedTable.getHolder(id);
+        }
+
+        @Override
+        protected boolean take0(Identity identity) {
+            int holder = sharedTable.tryTake(id, identity.getSeatId());
+            if (holder == FREE_FLAG) {
+                return true;
+            }
+
+            sharedTable.busy.increment();
+            if (!settings.hostsSeat(holder)) {
+                sharedTable.remoteBusy.increment();
+            }
+            return false;
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            boolean released = sharedTable.release(id, identity.getSeatId());
+            assert released : identity + " is not a holder of #" + id;
+        }
+
+    }
+
+    static class MappedPhilosopher extends ThreadedPhilosopher<MappedFork, MappedPhilosopher> {
+
+        public MappedPhilosopher(Dinner<MappedFork, MappedPhilosopher> dinner, Identity identity) {
+            super(dinner, identity);
+        }
+
+        @Override
+        public boolean acquireForks0() {
+            if (leftFork.take(identity)) {
+                if (rightFork.take(identity)) {
+                    return true;
+                } else {
+                    leftFork.release(identity);
+                    return false;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public void releaseForks0() {
+            rightFork.release(identity);
+            leftFork.release(identity);
+        }
+
+    }
+
+    /**
+     * Memory-mapped file with a header, a slot of each slice and a holder of each fork, all values are native order:
+     * <pre>
+     * magic | fork count | slice count | state | generation | ... | ticket, echo of slice 0 | ... | holder + 1 of fork 0 | ...
+     * </pre>
+     * Zero holder means that fork is free, so the table is ready right after the file is created. Generation
+     * is unique for each created table, so slices find out that the table was replaced by the first slice.
+     */
+    @Slf4j
+    static class SharedTable {
+
+        private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+        private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+        private static final int MAGIC = 0x464f524b;
+        private static final int OPEN = 1;
+        private static final int CLOSED = 2;
+
+        private static final int MAGIC_OFFSET = 0;
+        private static final int FORK_COUNT_OFFSET = 4;
+        private static final int SLICE_COUNT_OFFSET = 8;
+        private static final int STATE_OFFSET = 12;
+        private static final int GENERATION_OFFSET = 16;
+
+        /**
+         * Header and slots of slices take whole cache lines
+         */
+        private static final int HEADER_BYTES = 64;
+        private static final int SLOT_BYTES = 16;
+
+        private static final long ATTACH_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+        private static final long POLL_MILLIS = 10;
+
+        private final Path file;
+        private final int forkCount;
+        private final int sliceCount;
+
+        /**
+         * Replaced only before the dinner starts, the start gate publishes it to philosophers
+         */
+        private MappedByteBuffer buffer;
+        private long generation;
+
+        final LongAdder busy = new LongAdder();
+
+        /**
+         * Failed takes of forks held by philosophers of other processes
+         */
+        final LongAdder remoteBusy = new LongAdder();
+
+        private SharedTable(Path file, int forkCount, int sliceCount, MappedByteBuffer buffer, long generation) {
+            this.file = file;
+            this.forkCount = forkCount;
+            this.sliceCount = sliceCount;
+            this.buffer = buffer;
+            this.generation = generation;
+        }
+
+        /**
+         * Replaces the file of the previous dinner with a table of the new generation
+         */
+        static SharedTable create(Path file, int forkCount, int sliceCount) {
+            try {
+                Files.deleteIfExists(file);
+                MappedByteBuffer buffer;
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeOf(forkCount, sliceCount));
+                }
+
+                long generation = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+                INTS.set(buffer, FORK_COUNT_OFFSET, forkCount);
+                INTS.set(buffer, SLICE_COUNT_OFFSET, sliceCount);
+                INTS.set(buffer, STATE_OFFSET, OPEN);
+                LONGS.set(buffer, GENERATION_OFFSET, generation);
+                INTS.setVolatile(buffer, MAGIC_OFFSET, MAGIC);
+
+                return new SharedTable(file, forkCount, sliceCount, buffer, generation);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create shared table " + file, e);
+            }
+        }
+
+        /**
+         * Waits until the first slice creates the file with the table of the same size
+         */
+        static SharedTable attach(Path file, int forkCount, int sliceCount) {
+            log.info("Wait for the first slice to create shared table {}", file);
+            return attach(file, forkCount, sliceCount, System.currentTimeMillis() + ATTACH_TIMEOUT_MILLIS);
+        }
+
+        /**
+         * Only the header is read until it's valid, so the file is never mapped on polling,
+         * and the file of another dinner is never resized
+         */
+        private static SharedTable attach(Path file, int forkCount, int sliceCount, long deadline) {
+            boolean foreign = false;
+
+            while (System.currentTimeMillis() < deadline) {
+                try {
+                    ByteBuffer header = readHeader(file);
+                    if (header != null && header.getInt(MAGIC_OFFSET) == MAGIC && header.getInt(STATE_OFFSET) == OPEN) {
+                        foreign = header.getInt(FORK_COUNT_OFFSET) != forkCount || header.getInt(SLICE_COUNT_OFFSET) != sliceCount;
+                        if (!foreign) {
+                            long generation = header.getLong(GENERATION_OFFSET);
+                            MappedByteBuffer buffer = map(file, sizeOf(forkCount, sliceCount));
+
+                            // File could be replaced after the header was read
+                            if (buffer != null && (long) LONGS.getVolatile(buffer, GENERATION_OFFSET) == generation) {
+                                return new SharedTable(file, forkCount, sliceCount, buffer, generation);
+                            }
+                        }
+                    }
+
+                } catch (NoSuchFileException e) {
+                    log.trace("Shared table {} is not created yet", file);
+
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to attach shared table " + file, e);
+                }
+
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(POLL_MILLIS));
+            }
+
+            throw new IllegalStateException(foreign
+                    ? "Shared table " + file + " is created for another dinner"
+                    : "Shared table " + file + " was not created in " + ATTACH_TIMEOUT_MILLIS + " ms");
+        }
+
+        /**
+         * @return header of the table, or null if it's not written completely yet
+         */
+        private static ByteBuffer readHeader(Path file) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (header.hasRemaining()) {
+                    if (channel.read(header, header.position()) < 0) {
+                        return null;
+                    }
+                }
+            }
+            return header;
+        }
+
+        /**
+         * @return mapping of the whole table, or null if the file is smaller, since mapping would resize it
+         */
+        private static MappedByteBuffer map(Path file, long size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Mapping stays valid after the channel is closed
+                return channel.size() >= size ? channel.map(FileChannel.MapMode.READ_WRITE, 0, size) : null;
+            }
+        }
+
+        /**
+         * Start barrier for all slices. Other slices publish fresh tickets in their slots, and the first slice
+         * echoes them back, when all of them are published, so a table left by a killed dinner never lets anybody
+         * through. Slice, which waits for the echo, attaches again if the first slice replaces the table meanwhile.
+         * Philosophers of this process are ready already, so waiting is short if other processes are started
+         * at the same time.
+         *
+         * @param shutdown tells whether the dinner is stopped, then waiting is over
+         * @throws IllegalStateException if other slices are not ready in time or the waiting thread is interrupted
+         */
+        void awaitSlices(int sliceIndex, BooleanSupplier shutdown) {
+            long deadline = System.currentTimeMillis() + ATTACH_TIMEOUT_MILLIS;
+            long ticket = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+            if (sliceIndex > 0) {
+                LONGS.setVolatile(buffer, ticketOffsetOf(sliceIndex), ticket);
+            }
+            log.info("Slice {} of {} is ready", sliceIndex, sliceCount);
+
+            long nextCheck = System.currentTimeMillis() + POLL_MILLIS;
+            while (sliceIndex == 0 ? !echoTickets() : (long) LONGS.getVolatile(buffer, echoOffsetOf(sliceIndex)) != ticket) {
+                if (shutdown.getAsBoolean()) {
+                    return;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Interrupted while waiting for other slices");
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= deadline) {
+                    throw new IllegalStateException("Not all of " + sliceCount + " slices were ready in "
+                            + ATTACH_TIMEOUT_MILLIS + " ms at shared table " + file);
+                }
+                if (sliceIndex > 0 && now >= nextCheck) {
+                    nextCheck = now + POLL_MILLIS;
+                    if (isReplaced()) {
+                        log.info("Shared table {} is replaced by the first slice, attach it again", file);
+                        SharedTable attached = attach(file, forkCount, sliceCount, deadline);
+                        buffer = attached.buffer;
+                        generation = attached.generation;
+                        LONGS.setVolatile(buffer, ticketOffsetOf(sliceIndex), ticket);
+                    }
+                }
+
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            }
+        }
+
+        /**
+         * @return true if tickets of all other slices are published and echoed
+         */
+        private boolean echoTickets() {
+            for (int sliceIndex = 1; sliceIndex < sliceCount; sliceIndex++) {
+                if ((long) LONGS.getVolatile(buffer, ticketOffsetOf(sliceIndex)) == 0) {
+                    return false;
+                }
+            }
+
+            for (int sliceIndex = 1; sliceIndex < sliceCount; sliceIndex++) {
+                LONGS.setVolatile(buffer, echoOffsetOf(sliceIndex), (long) LONGS.getVolatile(buffer, ticketOffsetOf(sliceIndex)));
+            }
+            return true;
+        }
+
+        private boolean isReplaced() {
+            try {
+                ByteBuffer header = readHeader(file);
+                return header == null || header.getLong(GENERATION_OFFSET) != generation;
+
+            } catch (NoSuchFileException e) {
+                return true;
+
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read shared table " + file, e);
+            }
+        }
+
+        int getHolder(int forkId) {
+            return fromStored((int) INTS.getVolatile(buffer, offsetOf(forkId)));
+        }
+
+        /**
+         * @return {@link Fork#FREE_FLAG} if the fork was taken, current holder otherwise
+         */
+        int tryTake(int forkId, int seatId) {
+            int witness = (int) INTS.compareAndExchange(buffer, offsetOf(forkId), 0, seatId + 1);
+            return fromStored(witness);
+        }
+
+        boolean release(int forkId, int seatId) {
+            return INTS.compareAndSet(buffer, offsetOf(forkId), seatId + 1, 0);
+        }
+
+        /**
+         * Closed table is never attached by slices of the next dinner
+         */
+        void close(boolean owner) {
+            if (owner) {
+                INTS.setVolatile(buffer, STATE_OFFSET, CLOSED);
+            }
+        }
+
+        private int offsetOf(int forkId) {
+            return forksOffsetOf(sliceCount) + Integer.BYTES * forkId;
+        }
+
+        private static int ticketOffsetOf(int sliceIndex) {
+            return HEADER_BYTES + SLOT_BYTES * sliceIndex;
+        }
+
+        private static int echoOffsetOf(int sliceIndex) {
+            return ticketOffsetOf(sliceIndex) + Long.BYTES;
+        }
+
+        /**
+         * Forks start at the cache line after the slots
+         */
+        private static int forksOffsetOf(int sliceCount) {
+            return HEADER_BYTES + (SLOT_BYTES * sliceCount + HEADER_BYTES - 1) / HEADER_BYTES * HEADER_BYTES;
+        }
+
+        private static long sizeOf(int forkCount, int sliceCount) {
+            return forksOffsetOf(sliceCount) + (long) Integer.BYTES * forkCount;
+        }
+
+        private static int fromStored(int stored) {
+            return stored == 0 ? Fork.FREE_FLAG : stored - 1;
+        }
+
+    }
+
+}
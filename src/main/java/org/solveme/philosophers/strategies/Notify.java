@@ -20,7 +20,7 @@ public class Notify extends Dinner<Notify.NotifyFork, Notify.NotifyPhilosopher>
 
     @Override
     public NotifyFork buildFork(Dinner<NotifyFork, NotifyPhilosopher> dinner, int forkId) {
-        return new NotifyFork(forkId, table);
+        return new NotifyFork(forkId);
     }
 
     @Override
@@ -35,11 +35,9 @@ public class Notify extends Dinner<Notify.NotifyFork, Notify.NotifyPhilosopher>
         private static final long ELAPSED_EPSILON_MILLIS = 5;
 
         private int holder = FREE_FLAG;
-        private final Table table;
 
-        public NotifyFork(int id, Table table) {
+        public NotifyFork(int id) {
             super(id);
-            this.table = table;
         }
 
         @Override
@@ -95,7 +93,7 @@ public class Notify extends Dinner<Notify.NotifyFork, Notify.NotifyPhilosopher>
                 }
             }
 
-            log.debug("Take {} fork #{}", table.sideOfNearFork(id, identity).name().toLowerCase(), id);
+            log.debug("Take {} fork #{}", sideFor(identity).name().toLowerCase(), id);
             holder = identity.getSeatId();
 
             return true;
@@ -103,7 +101,7 @@ public class Notify extends Dinner<Notify.NotifyFork, Notify.NotifyPhilosopher>
 
         @Override
         protected synchronized void release0(Identity identity) {
-            log.debug("Release {} fork #{}", table.sideOfNearFork(id, identity).name().toLowerCase(), id);
+            log.debug("Release {} fork #{}", sideFor(identity).name().toLowerCase(), id);
             holder = FREE_FLAG;
 
             // Only one thread may wait on this fork
@@ -113,7 +111,7 @@ public class Notify extends Dinner<Notify.NotifyFork, Notify.NotifyPhilosopher>
     }
 
     @Slf4j
-    static class NotifyPhilosopher extends Philosopher<NotifyFork, NotifyPhilosopher> {
+    static class NotifyPhilosopher extends ThreadedPhilosopher<NotifyFork, NotifyPhilosopher> {
 
 
         public NotifyPhilosopher(Dinner<NotifyFork, NotifyPhilosopher> dinner,
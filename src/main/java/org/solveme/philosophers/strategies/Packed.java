@@ -0,0 +1,214 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.solveme.philosophers.*;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Variation of {@link Atomic} approach, where states of all forks are packed as bits into words of a single
+ * {@link AtomicLongArray}. Adjacent forks mostly share the word, so both of them are taken with a single CAS
+ * and there is nothing to roll back. Only when forks are in different words (at word boundaries and at
+ * the wrap-around of the table) they are taken one by one in order of words, with roll back on failure.
+ */
+@Slf4j
+public class Packed extends Dinner<Packed.PackedFork, Packed.PackedPhilosopher> {
+
+    private final ForkWords words;
+
+    public Packed(DinnerApp.Settings settings) {
+        super(settings);
+        words = new ForkWords(getForkCount());
+    }
+
+    @Override
+    public PackedFork buildFork(Dinner<PackedFork, PackedPhilosopher> dinner, int forkId) {
+        return new PackedFork(forkId, words);
+    }
+
+    @Override
+    public PackedPhilosopher buildPhilosopher(Dinner<PackedFork, PackedPhilosopher> dinner, Identity identity) {
+        return new PackedPhilosopher(dinner, identity, words);
+    }
+
+    @Override
+    protected void beforeResults() {
+        log.info("Forks were taken {} times by a single CAS and {} times by two, {} roll backs, {} CAS retries",
+                words.singleCasTakes.sum(), words.splitTakes.sum(), words.rollbacks.sum(), words.casRetries.sum());
+    }
+
+    /**
+     * State of the fork is a bit in {@link ForkWords}, holder is kept only for reporting
+     */
+    static class PackedFork extends Fork {
+
+        private final ForkWords words;
+        private volatile int holder = FREE_FLAG;
+
+        public PackedFork(int id, ForkWords words) {
+            super(id);
+            this.words = words;
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        @Override
+        protected boolean take0(Identity identity) {
+            if (words.tryTake(id)) {
+                holder = identity.getSeatId();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Called when the fork was taken together with another one
+         */
+        void markTaken(Identity identity) {
+            holder = identity.getSeatId();
+            takenTimestamp = System.nanoTime();
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+            holder = FREE_FLAG;
+            words.release(id);
+        }
+
+    }
+
+    static class PackedPhilosopher extends ThreadedPhilosopher<PackedFork, PackedPhilosopher> {
+
+        private final ForkWords words;
+
+        public PackedPhilosopher(Dinner<PackedFork, PackedPhilosopher> dinner, Identity identity, ForkWords words) {
+            super(dinner, identity);
+            this.words = words;
+        }
+
+        @Override
+        public boolean acquireForks0() {
+            if (words.tryTakeBoth(leftFork.getId(), rightFork.getId())) {
+                leftFork.markTaken(identity);
+                rightFork.markTaken(identity);
+                return true;
+            }
+
+            return false;
+        }
+
+        @Override
+        public void releaseForks0() {
+            rightFork.release(identity);
+            leftFork.release(identity);
+        }
+
+    }
+
+    /**
+     * Fork with id N is the bit N % 64 of the word N / 64, set bit means that fork is taken
+     */
+    static class ForkWords {
+
+        private static final int WORD_SHIFT = 6;
+
+        private final AtomicLongArray words;
+
+        final LongAdder singleCasTakes = new LongAdder();
+        final LongAdder splitTakes = new LongAdder();
+        final LongAdder rollbacks = new LongAdder();
+
+        /**
+         * CAS failures due to concurrent changes of other forks of the same word, that were not busy
+         */
+        final LongAdder casRetries = new LongAdder();
+
+        ForkWords(int forkCount) {
+            this.words = new AtomicLongArray((forkCount + Long.SIZE - 1) >>> WORD_SHIFT);
+        }
+
+        boolean isTaken(int forkId) {
+            return (words.get(wordOf(forkId)) & bitOf(forkId)) != 0;
+        }
+
+        boolean tryTake(int forkId) {
+            return tryTake(wordOf(forkId), bitOf(forkId));
+        }
+
+        boolean tryTakeBoth(int firstForkId, int secondForkId) {
+            int firstWord = wordOf(firstForkId);
+            int secondWord = wordOf(secondForkId);
+
+            if (firstWord == secondWord) {
+                if (tryTake(firstWord, bitOf(firstForkId) | bitOf(secondForkId))) {
+                    singleCasTakes.increment();
+                    return true;
+                }
+                return false;
+            }
+
+            // Forks are taken in order of words, so neighbours at the boundary compete for the same fork first
+            int lowerForkId = firstWord < secondWord ? firstForkId : secondForkId;
+            int upperForkId = lowerForkId == firstForkId ? secondForkId : firstForkId;
+
+            if (!tryTake(lowerForkId)) {
+                return false;
+            }
+
+            if (tryTake(upperForkId)) {
+                splitTakes.increment();
+                return true;
+            }
+
+            release(lowerForkId);
+            rollbacks.increment();
+            return false;
+        }
+
+        void release(int forkId) {
+            int word = wordOf(forkId);
+            long bit = bitOf(forkId);
+
+            while (true) {
+                long current = words.get(word);
+                assert (current & bit) != 0 : "Fork #" + forkId + " is not taken";
+                if (words.compareAndSet(word, current, current & ~bit)) {
+                    return;
+                }
+                casRetries.increment();
+            }
+        }
+
+        /**
+         * Fails only if some of the forks is taken, concurrent changes of other bits are retried
+         */
+        private boolean tryTake(int word, long mask) {
+            while (true) {
+                long current = words.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+                if (words.compareAndSet(word, current, current | mask)) {
+                    return true;
+                }
+                casRetries.increment();
+            }
+        }
+
+        private static int wordOf(int forkId) {
+            return forkId >>> WORD_SHIFT;
+        }
+
+        private static long bitOf(int forkId) {
+            return 1L << forkId;
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.solveme.philosophers.strategies;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+
+/**
+ * Request of philosopher for forks, which is completed by a helper thread of the strategy while philosopher parks.
+ * Philosopher cancels the request only on shutdown, and the first of completion and cancellation wins.
+ */
+class PendingRequest {
+
+    private static final int IDLE = 0;
+    private static final int WAITING = 1;
+    private static final int GRANTED = 2;
+    private static final int REJECTED = 3;
+    private static final int CANCELLED = 4;
+
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private volatile Thread waiter;
+
+    /**
+     * Should be called by philosopher before the request is published
+     */
+    void open() {
+        waiter = Thread.currentThread();
+        state.set(WAITING);
+    }
+
+    /**
+     * Parks until the request is completed. Cancellation of the request is published on shutdown, then the helper
+     * thread either drops the request or takes back forks, which it has granted in the meantime.
+     *
+     * @param shutdown tells whether the dinner is over
+     * @param cancel   publishes cancellation of the request
+     * @return true if forks are granted
+     */
+    boolean await(Object blocker, BooleanSupplier shutdown, Runnable cancel) {
+        while (true) {
+            int current = state.get();
+            if (current == GRANTED) {
+                return true;
+            }
+            if (current == REJECTED) {
+                return false;
+            }
+
+            if (shutdown.getAsBoolean() && state.compareAndSet(WAITING, CANCELLED)) {
+                cancel.run();
+                return false;
+            }
+
+            LockSupport.park(blocker);
+            // Only shutdown interrupts philosophers here, so the flag is cleared to avoid busy parking
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Called by helper thread, completion of the cancelled request is ignored
+     */
+    void complete(boolean granted) {
+        if (state.compareAndSet(WAITING, granted ? GRANTED : REJECTED)) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+}
@@ -0,0 +1,750 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Distributed dinner, where forks are owned by a fork server and philosophers negotiate them by messages
+ * over non-blocking sockets on localhost. Each process (see {@link Mapped} for slices) is a node with a single
+ * connection: philosophers publish requests into a ring buffer, and node thread writes all published requests
+ * as a single batch. Server replies to requests as soon as they are processed, so grants are pipelined
+ * with requests of other philosophers.
+ * <p>
+ * Server grants forks either in FIFO order as soon as they are released ({@link Grant#QUEUE}, like {@link Arbiter})
+ * or only if both are free right now ({@link Grant#TRY}, like {@link Atomic}), so every fork hand-off costs
+ * a round-trip instead of a cache miss.
+ */
+@Slf4j
+public class Remote extends Dinner<Remote.RemoteFork, Remote.RemotePhilosopher> {
+
+    private final ForkServer server;
+    private final Node node;
+
+    public Remote(DinnerApp.Settings settings) {
+        super(settings);
+
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.getPort());
+        server = settings.getSliceIndex() == 0
+                ? new ForkServer(address, getForkCount(), settings.getSliceCount(), settings.getGrant())
+                : null;
+        node = new Node(this, server != null ? server.getAddress() : address);
+
+        log.info("Slice {} of {} hosts {} of {} seats, forks are granted by {} server at {}",
+                settings.getSliceIndex(), settings.getSliceCount(), settings.getHostedSeatCount(), getSeatCount(),
+                settings.getGrant(), node.address);
+    }
+
+    @Override
+    public RemoteFork buildFork(Dinner<RemoteFork, RemotePhilosopher> dinner, int forkId) {
+        return new RemoteFork(forkId);
+    }
+
+    @Override
+    public RemotePhilosopher buildPhilosopher(Dinner<RemoteFork, RemotePhilosopher> dinner, Identity identity) {
+        return new RemotePhilosopher(dinner, identity, node);
+    }
+
+    @Override
+    public void start() {
+        node.start();
+        super.start();
+    }
+
+    @Override
+    protected void awaitStart() {
+        node.awaitStart(settings.getSliceIndex());
+    }
+
+    @Override
+    protected void beforeResults() {
+        node.stop();
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Override
+    protected boolean supportsMembershipChanges() {
+        return false;
+    }
+
+
+    public enum Grant {
+
+        /**
+         * Waiting philosophers are served in FIFO order when forks are released
+         */
+        QUEUE,
+
+        /**
+         * Philosopher gets either both forks or rejection immediately
+         */
+        TRY
+
+    }
+
+    /**
+     * Fixed-size messages of native order ints. Request: type, seatId, leftForkId, rightForkId. Reply: type, seatId.
+     */
+    static final class Protocol {
+
+        static final int READY = 0;
+        static final int ACQUIRE = RequestRing.ACQUIRE;
+        static final int RELEASE = RequestRing.RELEASE;
+        static final int CANCEL = RequestRing.CANCEL;
+
+        static final int START = 10;
+        static final int GRANTED = 11;
+        static final int REJECTED = 12;
+
+        static final int REQUEST_BYTES = 4 * Integer.BYTES;
+        static final int REPLY_BYTES = 2 * Integer.BYTES;
+
+        private Protocol() {
+        }
+
+    }
+
+    /**
+     * Holder is known only for local philosophers and is kept only for reporting, server owns the actual state
+     */
+    static class RemoteFork extends Fork {
+
+        private volatile int holder = FREE_FLAG;
+
+        public RemoteFork(int id) {
+            super(id);
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        @Override
+        protected boolean take0(Identity identity) {
+            holder = identity.getSeatId();
+            return true;
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+            holder = FREE_FLAG;
+        }
+
+    }
+
+    static class RemotePhilosopher extends ThreadedPhilosopher<RemoteFork, RemotePhilosopher> {
+
+        private final Node node;
+        private final PendingRequest request = new PendingRequest();
+
+        public RemotePhilosopher(Dinner<RemoteFork, RemotePhilosopher> dinner, Identity identity, Node node) {
+            super(dinner, identity);
+            this.node = node;
+        }
+
+        @Override
+        public boolean acquireForks0() {
+            request.open();
+            node.publish(Protocol.ACQUIRE, this);
+
+            if (!request.await(node, this::isShutdown, () -> node.publish(Protocol.CANCEL, this))) {
+                return false;
+            }
+
+            leftFork.take(identity);
+            rightFork.take(identity);
+            return true;
+        }
+
+        @Override
+        public void releaseForks0() {
+            rightFork.release(identity);
+            leftFork.release(identity);
+            node.publish(Protocol.RELEASE, this);
+        }
+
+        /**
+         * Called by node thread
+         */
+        void reply(boolean granted) {
+            request.complete(granted);
+        }
+
+    }
+
+    /**
+     * Connection of the process to the fork server. Everything except {@link #publish(int, RemotePhilosopher)}
+     * and {@link #awaitStart(int)} is called only within node thread.
+     */
+    @Slf4j
+    static class Node implements Runnable {
+
+        private static final long CONNECT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+        private static final long SELECT_MILLIS = 10;
+
+        private final Remote dinner;
+        private final InetSocketAddress address;
+        private final RequestRing ring;
+        private final ByteBuffer out;
+        private final ByteBuffer in;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final Thread thread;
+
+        private final SocketChannel channel;
+        private final Selector selector;
+        private final SelectionKey key;
+
+        private volatile boolean running = true;
+
+        private long requests;
+        private long writes;
+        private long replies;
+        private long reads;
+
+        Node(Remote dinner, InetSocketAddress address) {
+            int ringCapacity = 4 * (dinner.settings.getHostedSeatCount() + 1);
+
+            this.dinner = dinner;
+            this.address = address;
+            this.ring = new RequestRing(ringCapacity, this::wakeUp);
+            // Ring capacity is rounded up to the power of two, so all published requests always fit into the buffer
+            this.out = ByteBuffer.allocateDirect(2 * ringCapacity * Protocol.REQUEST_BYTES).order(ByteOrder.nativeOrder());
+            this.out.flip();
+            this.in = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.nativeOrder());
+            this.thread = new Thread(this, StringUtils.leftPad("Node" + dinner.settings.getSliceIndex(), Identity.MAX_LENGTH));
+            this.thread.setDaemon(true);
+
+            try {
+                this.channel = connect(address);
+                this.channel.configureBlocking(false);
+                this.selector = Selector.open();
+                this.key = channel.register(selector, SelectionKey.OP_READ);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to connect to fork server at " + address, e);
+            }
+        }
+
+        /**
+         * Server of the first slice could be started later than this process
+         */
+        private static SocketChannel connect(InetSocketAddress address) throws IOException {
+            long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+
+            while (true) {
+                try {
+                    SocketChannel channel = SocketChannel.open(address);
+                    channel.socket().setTcpNoDelay(true);
+                    return channel;
+
+                } catch (IOException e) {
+                    if (System.currentTimeMillis() >= deadline) {
+                        throw e;
+                    }
+                    log.trace("Fork server at {} is not available yet", address);
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(SELECT_MILLIS));
+                }
+            }
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            selector.wakeup();
+            try {
+                thread.join();
+
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for node to stop");
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Could be called by any philosopher thread
+         */
+        void publish(int type, RemotePhilosopher philosopher) {
+            ring.publish(type, philosopher.getSeatId(), philosopher.getLeftFork().getId(), philosopher.getRightFork().getId());
+        }
+
+        private void wakeUp() {
+            selector.wakeup();
+        }
+
+        /**
+         * Start barrier for all slices, the dinner starts when server has got readiness of every node.
+         * Other slices are waited for as long as the server is waited for on connecting.
+         *
+         * @throws IllegalStateException if other slices are not ready in time
+         */
+        void awaitStart(int sliceIndex) {
+            ring.publish(Protocol.READY, sliceIndex, 0, 0);
+            long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+            try {
+                while (!started.await(SELECT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (dinner.isShutdown()) {
+                        return;
+                    }
+                    if (System.currentTimeMillis() >= deadline) {
+                        throw new IllegalStateException("Not all of " + dinner.settings.getSliceCount()
+                                + " slices were ready in " + CONNECT_TIMEOUT_MILLIS + " ms at fork server " + address);
+                    }
+                }
+
+            } catch (InterruptedException e) {
+                log.warn("Interrupted while waiting for other slices");
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Requests, published before stopping, are still written
+                while (running || !ring.isEmpty() || out.hasRemaining()) {
+                    flush();
+
+                    ring.setSleeping(true);
+                    if (ring.isEmpty() && running) {
+                        selector.select(SELECT_MILLIS);
+                    } else {
+                        selector.selectNow();
+                    }
+                    ring.setSleeping(false);
+
+                    if (key.isValid() && key.isReadable() && selector.selectedKeys().remove(key)) {
+                        receive();
+                    }
+                    selector.selectedKeys().clear();
+                }
+
+            } catch (IOException e) {
+                log.error("Connection to fork server at {} is broken", address, e);
+                dinner.abort();
+
+            } finally {
+                close();
+            }
+
+            log.info("Node sent {} requests in {} writes ({} per write), received {} replies in {} reads",
+                    requests, writes, String.format("%.2f", writes == 0 ? 0D : (double) requests / writes), replies, reads);
+        }
+
+        private void flush() throws IOException {
+            if (!out.hasRemaining()) {
+                out.clear();
+                int drained = ring.drain(this::put);
+                out.flip();
+                requests += drained;
+            }
+
+            if (out.hasRemaining()) {
+                channel.write(out);
+                writes++;
+            }
+
+            key.interestOps(out.hasRemaining() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        private void put(int type, int seatId, int leftForkId, int rightForkId) {
+            out.putInt(type).putInt(seatId).putInt(leftForkId).putInt(rightForkId);
+        }
+
+        private void receive() throws IOException {
+            if (channel.read(in) < 0) {
+                throw new IOException("Connection is closed by fork server");
+            }
+            reads++;
+
+            in.flip();
+            while (in.remaining() >= Protocol.REPLY_BYTES) {
+                int type = in.getInt();
+                int seatId = in.getInt();
+                replies++;
+
+                switch (type) {
+                    case Protocol.START:
+                        started.countDown();
+                        break;
+
+                    case Protocol.GRANTED:
+                    case Protocol.REJECTED:
+                        dinner.getPhilosopherBySeatId(seatId).reply(type == Protocol.GRANTED);
+                        break;
+
+                    default:
+                        throw new IllegalStateException("Unknown reply type " + type);
+                }
+            }
+            in.compact();
+        }
+
+        private void close() {
+            started.countDown();
+            try {
+                selector.close();
+                channel.close();
+
+            } catch (IOException e) {
+                log.debug("Unable to close connection to fork server", e);
+            }
+        }
+
+    }
+
+    /**
+     * Single-threaded owner of all forks, which serves connections of all nodes
+     */
+    @Slf4j
+    static class ForkServer implements Runnable {
+
+        private static final long SELECT_MILLIS = 10;
+        private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+        private final int sliceCount;
+        private final Grant grant;
+        private final ServerSocketChannel serverChannel;
+        private final Selector selector;
+        private final Thread thread;
+
+        private final List<Connection> connections = new ArrayList<>();
+        private final Connection[] connectionBySeat;
+        private final int[] holders;
+        private final int[] wantedLeftForks;
+        private final int[] wantedRightForks;
+        private final ArrayDeque<Integer> waiting = new ArrayDeque<>();
+        private final BitSet claimedForks;
+        private int readySlices = 0;
+
+        private volatile boolean running = true;
+
+        private long requests;
+        private long reads;
+        private long grants;
+        private long rejections;
+
+        ForkServer(InetSocketAddress address, int forkCount, int sliceCount, Grant grant) {
+            this.sliceCount = sliceCount;
+            this.grant = grant;
+            this.connectionBySeat = new Connection[forkCount];
+            this.holders = new int[forkCount];
+            this.wantedLeftForks = new int[forkCount];
+            this.wantedRightForks = new int[forkCount];
+            this.claimedForks = new BitSet(forkCount);
+            Arrays.fill(holders, Fork.FREE_FLAG);
+
+            try {
+                this.serverChannel = ServerSocketChannel.open();
+                this.serverChannel.bind(address);
+                this.serverChannel.configureBlocking(false);
+                this.selector = Selector.open();
+                this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to start fork server at " + address, e);
+            }
+
+            this.thread = new Thread(this, StringUtils.leftPad("Server", Identity.MAX_LENGTH));
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        InetSocketAddress getAddress() {
+            try {
+                return (InetSocketAddress) serverChannel.getLocalAddress();
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Waits until nodes of other processes are disconnected
+         */
+        void stop() {
+            running = false;
+            selector.wakeup();
+            try {
+                thread.join();
+
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for fork server to stop");
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            long stopDeadline = Long.MAX_VALUE;
+
+            try {
+                while (running || !connections.isEmpty() && System.currentTimeMillis() < stopDeadline) {
+                    if (!running && stopDeadline == Long.MAX_VALUE) {
+                        stopDeadline = System.currentTimeMillis() + STOP_TIMEOUT_MILLIS;
+                    }
+
+                    selector.select(SELECT_MILLIS);
+                    boolean changed = false;
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+
+                        if (key.isValid() && key.isAcceptable()) {
+                            accept();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            changed |= receive((Connection) key.attachment());
+                        }
+                    }
+
+                    if (changed && grant == Grant.QUEUE) {
+                        grantWaiting();
+                    }
+                    for (Connection connection : new ArrayList<>(connections)) {
+                        flush(connection);
+                    }
+                }
+
+            } catch (IOException e) {
+                log.error("Fork server is broken", e);
+
+            } finally {
+                close();
+            }
+
+            log.info("Server processed {} requests in {} reads, granted forks {} times, rejected {} times",
+                    requests, reads, grants, rejections);
+        }
+
+        private void accept() throws IOException {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel, Protocol.REPLY_BYTES * 2 * (holders.length + 1));
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+            log.debug("Node {} is connected", channel.getRemoteAddress());
+        }
+
+        /**
+         * @return true if state of forks was changed
+         */
+        private boolean receive(Connection connection) throws IOException {
+            int read;
+            try {
+                read = connection.channel.read(connection.in);
+
+            } catch (IOException e) {
+                log.warn("Connection to node is broken", e);
+                read = -1;
+            }
+
+            if (read < 0) {
+                disconnect(connection);
+                return true;
+            }
+            reads++;
+
+            boolean changed = false;
+            ByteBuffer in = connection.in;
+            in.flip();
+            while (in.remaining() >= Protocol.REQUEST_BYTES) {
+                changed |= handle(connection, in.getInt(), in.getInt(), in.getInt(), in.getInt());
+                requests++;
+            }
+            in.compact();
+
+            return changed;
+        }
+
+        private boolean handle(Connection connection, int type, int seatId, int leftForkId, int rightForkId) {
+            switch (type) {
+                case Protocol.READY:
+                    if (++readySlices == sliceCount) {
+                        log.info("All {} slices are ready", sliceCount);
+                        connections.forEach(c -> reply(c, Protocol.START, 0));
+                    }
+                    return false;
+
+                case Protocol.ACQUIRE:
+                    connectionBySeat[seatId] = connection;
+                    wantedLeftForks[seatId] = leftForkId;
+                    wantedRightForks[seatId] = rightForkId;
+
+                    if (grant == Grant.QUEUE) {
+                        waiting.add(seatId);
+                        return true;
+                    }
+
+                    if (holders[leftForkId] == Fork.FREE_FLAG && holders[rightForkId] == Fork.FREE_FLAG) {
+                        take(seatId);
+                    } else {
+                        rejections++;
+                        reply(connection, Protocol.REJECTED, seatId);
+                    }
+                    return false;
+
+                case Protocol.RELEASE:
+                    release(seatId, leftForkId, rightForkId);
+                    return true;
+
+                case Protocol.CANCEL:
+                    if (!waiting.remove(seatId)) {
+                        release(seatId, leftForkId, rightForkId);
+                    }
+                    return true;
+
+                default:
+                    throw new IllegalStateException("Unknown request type " + type);
+            }
+        }
+
+        private void take(int seatId) {
+            holders[wantedLeftForks[seatId]] = seatId;
+            holders[wantedRightForks[seatId]] = seatId;
+            grants++;
+            reply(connectionBySeat[seatId], Protocol.GRANTED, seatId);
+        }
+
+        private void release(int seatId, int leftForkId, int rightForkId) {
+            if (holders[rightForkId] == seatId) {
+                holders[rightForkId] = Fork.FREE_FLAG;
+            }
+            if (holders[leftForkId] == seatId) {
+                holders[leftForkId] = Fork.FREE_FLAG;
+            }
+        }
+
+        private void grantWaiting() {
+            claimedForks.clear();
+
+            Iterator<Integer> iterator = waiting.iterator();
+            while (iterator.hasNext()) {
+                int seatId = iterator.next();
+                int leftForkId = wantedLeftForks[seatId];
+                int rightForkId = wantedRightForks[seatId];
+
+                boolean available = holders[leftForkId] == Fork.FREE_FLAG && holders[rightForkId] == Fork.FREE_FLAG
+                        && !claimedForks.get(leftForkId) && !claimedForks.get(rightForkId);
+
+                if (available) {
+                    iterator.remove();
+                    take(seatId);
+
+                } else {
+                    // Preserve forks for the earlier waiter
+                    claimedForks.set(leftForkId);
+                    claimedForks.set(rightForkId);
+                }
+            }
+        }
+
+        private void reply(Connection connection, int type, int seatId) {
+            if (connection.key.isValid()) {
+                connection.out.putInt(type).putInt(seatId);
+            }
+        }
+
+        private void flush(Connection connection) throws IOException {
+            if (!connection.key.isValid() || connection.out.position() == 0) {
+                return;
+            }
+
+            connection.out.flip();
+            try {
+                connection.channel.write(connection.out);
+
+            } catch (IOException e) {
+                log.warn("Connection to node is broken", e);
+                disconnect(connection);
+                return;
+            }
+            boolean pending = connection.out.hasRemaining();
+            connection.out.compact();
+
+            connection.key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        /**
+         * Forks of philosophers of the disconnected node are taken back
+         */
+        private void disconnect(Connection connection) throws IOException {
+            connection.key.cancel();
+            connection.channel.close();
+            connections.remove(connection);
+
+            for (int seatId = 0; seatId < connectionBySeat.length; seatId++) {
+                if (connectionBySeat[seatId] == connection) {
+                    waiting.remove(seatId);
+                    release(seatId, wantedLeftForks[seatId], wantedRightForks[seatId]);
+                    connectionBySeat[seatId] = null;
+                }
+            }
+            log.debug("Node is disconnected, {} nodes are still connected", connections.size());
+        }
+
+        private void close() {
+            try {
+                for (Connection connection : connections) {
+                    connection.channel.close();
+                }
+                selector.close();
+                serverChannel.close();
+
+            } catch (IOException e) {
+                log.debug("Unable to close fork server", e);
+            }
+        }
+
+        private static class Connection {
+
+            private final SocketChannel channel;
+            private final ByteBuffer in;
+            private final ByteBuffer out;
+            private SelectionKey key;
+
+            Connection(SocketChannel channel, int replyCapacity) {
+                this.channel = channel;
+                this.in = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.nativeOrder());
+                this.out = ByteBuffer.allocateDirect(replyCapacity).order(ByteOrder.nativeOrder());
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.solveme.philosophers.strategies;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Multi-producer single-consumer ring buffer of fixed capacity, which is used by philosophers to publish requests
+ * to a helper thread of the strategy. Producers claim a sequence with a single atomic increment, fill the slot
+ * and publish it by the ordered write of the sequence into availability array. Consumer processes slots strictly
+ * in sequence order, so requests of the same philosopher are never reordered.
+ * <p>
+ * Consumer could sleep when the ring is empty, see {@link #setSleeping(boolean)}, then publishers wake it up.
+ */
+class RequestRing {
+
+    static final int ACQUIRE = 1;
+    static final int RELEASE = 2;
+    static final int CANCEL = 3;
+
+    private final int mask;
+    private final int[] types;
+    private final int[] seatIds;
+    private final int[] leftForkIds;
+    private final int[] rightForkIds;
+    private final AtomicLongArray published;
+    private final Runnable wakeUp;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed = 0;
+    private volatile boolean sleeping = false;
+
+    /**
+     * @param wakeUp wakes up the sleeping consumer, could be called by any publisher
+     */
+    RequestRing(int minCapacity, Runnable wakeUp) {
+        int capacity = Integer.highestOneBit(Math.max(minCapacity, 2) - 1) << 1;
+        this.mask = capacity - 1;
+        this.types = new int[capacity];
+        this.seatIds = new int[capacity];
+        this.leftForkIds = new int[capacity];
+        this.rightForkIds = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.wakeUp = wakeUp;
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    void publish(int type, int seatId, int leftForkId, int rightForkId) {
+        long sequence = claimed.getAndIncrement();
+
+        // Wait until consumer frees the slot, that's possible only if there are more requests than slots
+        while (sequence - consumed > mask) {
+            Thread.yield();
+        }
+
+        int index = (int) (sequence & mask);
+        types[index] = type;
+        seatIds[index] = seatId;
+        leftForkIds[index] = leftForkId;
+        rightForkIds[index] = rightForkId;
+        published.lazySet(index, sequence);
+
+        wakeUp();
+    }
+
+    /**
+     * Wakes up the consumer, if it sleeps, could be called for events outside of the ring as well
+     */
+    void wakeUp() {
+        if (sleeping) {
+            wakeUp.run();
+        }
+    }
+
+    /**
+     * Consumer should check the ring once again after it has set the flag and before it sleeps. Publishers check
+     * the flag after publishing, so either the consumer sees their request or they wake it up. Publication
+     * is an ordered write, so the check could rarely miss the consumer, which is going to sleep, thus consumer
+     * should sleep with a timeout.
+     */
+    void setSleeping(boolean sleeping) {
+        this.sleeping = sleeping;
+    }
+
+    boolean isEmpty() {
+        long next = consumed;
+        return published.get((int) (next & mask)) != next;
+    }
+
+    /**
+     * @return amount of processed requests
+     */
+    int drain(Handler handler) {
+        long next = consumed;
+        int count = 0;
+
+        int index = (int) (next & mask);
+        while (published.get(index) == next) {
+            handler.handle(types[index], seatIds[index], leftForkIds[index], rightForkIds[index]);
+            next++;
+            count++;
+            index = (int) (next & mask);
+        }
+
+        consumed = next;
+        return count;
+    }
+
+    interface Handler {
+
+        void handle(int type, int seatId, int leftForkId, int rightForkId);
+
+    }
+
+}
@@ -0,0 +1,330 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.*;
+
+import java.util.BitSet;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Scheduled solution: dedicated 'Scheduler' thread splits the dinner into rounds. For each round it picks
+ * a maximal set of hungry philosophers that share no forks (walking around the table from the rotating start seat,
+ * so even and odd seats take turns) and grants forks to all of them at once by advancing the grants {@link Phaser}.
+ * Next round starts when every eater of the current round has released its forks.
+ * <p>
+ * Philosophers never compete for forks, so for always hungry philosophers with similar eating time
+ * the amount of concurrent eaters approaches the theoretical maximum of floor(n/2). The price is that
+ * the round lasts as long as its slowest eater.
+ */
+public class Rounds extends Dinner<Rounds.RoundsFork, Rounds.RoundsPhilosopher> {
+
+    private final Scheduler scheduler;
+
+    public Rounds(DinnerApp.Settings settings) {
+        super(settings);
+        scheduler = new Scheduler(this);
+    }
+
+    @Override
+    public RoundsFork buildFork(Dinner<RoundsFork, RoundsPhilosopher> dinner, int forkId) {
+        return new RoundsFork(forkId);
+    }
+
+    @Override
+    public RoundsPhilosopher buildPhilosopher(Dinner<RoundsFork, RoundsPhilosopher> dinner, Identity identity) {
+        return new RoundsPhilosopher(dinner, identity, scheduler);
+    }
+
+    @Override
+    public void start() {
+        scheduler.start();
+        super.start();
+    }
+
+    @Override
+    protected void beforeResults() {
+        scheduler.stop();
+    }
+
+    /**
+     * Fork is taken by scheduler on behalf of philosopher and released by philosopher itself
+     */
+    static class RoundsFork extends Fork {
+
+        private volatile int holder = FREE_FLAG;
+
+        public RoundsFork(int id) {
+            super(id);
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        @Override
+        protected boolean take0(Identity identity) {
+            assert holder == FREE_FLAG : "Fork #" + id + " is already taken";
+            holder = identity.getSeatId();
+            return true;
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+            holder = FREE_FLAG;
+        }
+
+    }
+
+    @Slf4j
+    static class RoundsPhilosopher extends ThreadedPhilosopher<RoundsFork, RoundsPhilosopher> {
+
+        private final Scheduler scheduler;
+
+        public RoundsPhilosopher(Dinner<RoundsFork, RoundsPhilosopher> dinner, Identity identity, Scheduler scheduler) {
+            super(dinner, identity);
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public boolean acquireForks0() {
+            scheduler.request(this);
+
+            while (true) {
+                // Phase is read before the check, so grants made in between are not missed
+                int phase = scheduler.getGrantsPhase();
+
+                if (scheduler.isGranted(this)) {
+                    return true;
+                }
+
+                if (isShutdown()) {
+                    // Forks could be granted right before the cancellation, then they are released as usual
+                    return !scheduler.cancel(this);
+                }
+
+                try {
+                    scheduler.awaitGrants(phase);
+
+                } catch (InterruptedException e) {
+                    log.trace("{} was interrupted while waiting for the round", identity);
+                }
+            }
+        }
+
+        @Override
+        public void releaseForks0() {
+            rightFork.release(identity);
+            leftFork.release(identity);
+            scheduler.finishMeal(this);
+        }
+
+    }
+
+    @Slf4j
+    static class Scheduler implements Runnable {
+
+        private static final int IDLE = 0;
+        private static final int HUNGRY = 1;
+        private static final int GRANTED = 2;
+
+        /**
+         * Scheduler has claimed the request, but forks are not taken yet
+         */
+        private static final int GRANTING = 3;
+
+        private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        private final Rounds dinner;
+        private final Thread thread;
+
+        private final AtomicIntegerArray states;
+        private final int[] wantedLeftForks;
+        private final int[] wantedRightForks;
+        private final BitSet claimedForks;
+
+        /**
+         * Advances each time forks are granted, only scheduler is registered
+         */
+        private final Phaser grants = new Phaser(1);
+
+        /**
+         * Eaters of the current round, who have not released their forks yet. Unlike {@link Phaser}
+         * the amount of eaters is not limited, so rounds of huge tables are counted as well.
+         */
+        private final AtomicInteger unfinishedMeals = new AtomicInteger();
+
+        private volatile boolean running = true;
+        private volatile boolean sleeping = false;
+
+        private long rounds;
+        private long eaters;
+        private long maxEaters;
+
+        Scheduler(Rounds dinner) {
+            this.dinner = dinner;
+            this.states = new AtomicIntegerArray(dinner.getSeatCapacity());
+            this.wantedLeftForks = new int[dinner.getSeatCapacity()];
+            this.wantedRightForks = new int[dinner.getSeatCapacity()];
+            this.claimedForks = new BitSet(dinner.getForkCount());
+            this.thread = new Thread(this, StringUtils.leftPad("Scheduler", Identity.MAX_LENGTH));
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() {
+            running = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for scheduler to stop");
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Called within philosopher thread, publishes wanted forks and marks philosopher as hungry
+         */
+        void request(RoundsPhilosopher philosopher) {
+            int seatId = philosopher.getSeatId();
+            wantedLeftForks[seatId] = philosopher.getLeftFork().getId();
+            wantedRightForks[seatId] = philosopher.getRightFork().getId();
+            states.set(seatId, HUNGRY);
+
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        int getGrantsPhase() {
+            return grants.getPhase();
+        }
+
+        boolean isGranted(RoundsPhilosopher philosopher) {
+            return states.get(philosopher.getSeatId()) == GRANTED;
+        }
+
+        /**
+         * @return false if forks have already been granted, so philosopher should release them
+         */
+        boolean cancel(RoundsPhilosopher philosopher) {
+            int seatId = philosopher.getSeatId();
+            while (!states.compareAndSet(seatId, HUNGRY, IDLE)) {
+                if (states.get(seatId) == GRANTED) {
+                    return false;
+                }
+                // Scheduler is taking forks right now, that's a matter of two writes
+                Thread.onSpinWait();
+            }
+
+            return true;
+        }
+
+        /**
+         * Waits until forks are granted to somebody after the given phase
+         */
+        void awaitGrants(int phase) throws InterruptedException {
+            grants.awaitAdvanceInterruptibly(phase);
+        }
+
+        /**
+         * Called within philosopher thread after forks were released
+         */
+        void finishMeal(RoundsPhilosopher philosopher) {
+            states.set(philosopher.getSeatId(), IDLE);
+            if (unfinishedMeals.decrementAndGet() == 0) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                int granted = grantRound();
+
+                if (granted == 0) {
+                    sleeping = true;
+                    if (running) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                    sleeping = false;
+                    continue;
+                }
+
+                rounds++;
+                eaters += granted;
+                maxEaters = Math.max(maxEaters, granted);
+
+                // Wait until every eater of the round releases its forks, early eaters could wake up scheduler in vain
+                while (unfinishedMeals.get() > 0 && running) {
+                    LockSupport.park(this);
+                }
+            }
+
+            log.info("Scheduler performed {} rounds with {} eaters per round (max {}, bound {})",
+                    rounds, String.format("%.2f", rounds == 0 ? 0D : (double) eaters / rounds),
+                    maxEaters, dinner.getTable().getSize() / 2);
+        }
+
+        /**
+         * @return amount of philosophers, who were granted forks in this round
+         */
+        private int grantRound() {
+            Table table = dinner.getTable();
+            int granted = 0;
+
+            claimedForks.clear();
+            // Table is locked, so membership changes could not break the walk around it
+            synchronized (table) {
+                int seatId = table.nextTakenSeat((int) (rounds % table.getCapacity()));
+
+                for (int i = 0, size = table.getSize(); i < size; i++, seatId = table.getLeftNeighbour(seatId)) {
+                    if (states.get(seatId) != HUNGRY) {
+                        continue;
+                    }
+
+                    int leftForkId = wantedLeftForks[seatId];
+                    int rightForkId = wantedRightForks[seatId];
+                    if (claimedForks.get(leftForkId) || claimedForks.get(rightForkId)) {
+                        continue;
+                    }
+
+                    // Philosopher could have cancelled the request due to shutdown
+                    if (states.compareAndSet(seatId, HUNGRY, GRANTING)) {
+                        claimedForks.set(leftForkId);
+                        claimedForks.set(rightForkId);
+
+                        // Eater could finish the meal as soon as it sees the grant, so everything is done before
+                        unfinishedMeals.incrementAndGet();
+                        Identity identity = Identity.at(seatId);
+                        dinner.getForkById(leftForkId).take(identity);
+                        dinner.getForkById(rightForkId).take(identity);
+                        states.set(seatId, GRANTED);
+                        granted++;
+                    }
+                }
+            }
+
+            if (granted > 0) {
+                // All eaters of the round are woken up at once
+                grants.arrive();
+            }
+
+            return granted;
+        }
+
+    }
+
+}
@@ -0,0 +1,551 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.solveme.philosophers.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Locality-aware solution, where table is split into contiguous segments of seats and each segment has its own worker
+ * thread. Philosophers don't have own threads: worker drives philosophers of its segment as state machines
+ * (HUNGRY -> EATING -> THINKING) by a queue of timers and grants forks to them in FIFO order. Fork between two seats
+ * of the same segment is used only by one worker, so its state is a plain field without any synchronization.
+ * Only the fork between the last seat of a segment and the first seat of the next one is shared by two workers
+ * and is taken under its monitor.
+ * <p>
+ * Thus philosophers and most forks of the segment stay in the cache of a single core, and the amount of workers,
+ * not philosophers, defines the amount of threads competing for shared state. Segments are fixed, so membership
+ * changes are not supported.
+ */
+@Slf4j
+public class Segmented extends Dinner<Segmented.SegmentFork, Segmented.SegmentPhilosopher> {
+
+    private final Worker[] workers;
+
+    public Segmented(DinnerApp.Settings settings) {
+        // Workers are the only parties of the coordinator, philosophers are not threads
+        super(settings, new Coordinator<>(0));
+        int segmentCount = resolveSegmentCount(settings.getSegmentCount(), getSeatCount());
+
+        workers = new Worker[segmentCount];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            workers[segment] = new Worker(this, segment);
+        }
+
+        log.info("{} seats are split into {} segments", getSeatCount(), segmentCount);
+    }
+
+    /**
+     * Each segment should have at least two seats, so philosopher never has two boundary forks
+     *
+     * @param requested amount of segments, one per available processor if not positive
+     */
+    static int resolveSegmentCount(int requested, int seatCount) {
+        int count = requested > 0 ? requested : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(count, seatCount / 2));
+    }
+
+    int segmentOf(int seatId) {
+        return (int) ((long) seatId * workers.length / getSeatCount());
+    }
+
+    /**
+     * @return first seat of the segment
+     */
+    int firstSeatOf(int segment) {
+        return (int) (((long) segment * getSeatCount() + workers.length - 1) / workers.length);
+    }
+
+    @Override
+    public SegmentFork buildFork(Dinner<SegmentFork, SegmentPhilosopher> dinner, int forkId) {
+        // Fork is the left one of its seat and the right one of the left neighbour
+        boolean boundary = segmentOf(forkId) != segmentOf(table.getLeftNeighbour(forkId));
+        return boundary ? new BoundaryFork(forkId) : new InnerFork(forkId);
+    }
+
+    @Override
+    public SegmentPhilosopher buildPhilosopher(Dinner<SegmentFork, SegmentPhilosopher> dinner, Identity identity) {
+        SegmentPhilosopher philosopher = new SegmentPhilosopher(this, identity);
+        workers[segmentOf(identity.getSeatId())].philosophers.add(philosopher);
+        return philosopher;
+    }
+
+    @Override
+    protected Runner buildRunner(SegmentPhilosopher philosopher, boolean initial) {
+        return null;
+    }
+
+    @Override
+    protected void awaitStart() {
+        for (Worker worker : workers) {
+            coordinator.joined();
+            worker.start();
+        }
+    }
+
+    @Override
+    protected void beforeResults() {
+        for (Worker worker : workers) {
+            worker.stop();
+        }
+    }
+
+    @Override
+    protected boolean supportsMembershipChanges() {
+        return false;
+    }
+
+
+    abstract static class SegmentFork extends Fork {
+
+        SegmentFork(int id) {
+            super(id);
+        }
+
+        /**
+         * @return true if the fork is shared by workers of two segments
+         */
+        abstract boolean isBoundary();
+
+    }
+
+    /**
+     * Fork state is changed only by the worker of its segment, other threads could see stale holder in reports
+     */
+    static class InnerFork extends SegmentFork {
+
+        private int holder = FREE_FLAG;
+
+        InnerFork(int id) {
+            super(id);
+        }
+
+        @Override
+        boolean isBoundary() {
+            return false;
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        @Override
+        protected boolean take0(Identity identity) {
+            if (holder != FREE_FLAG) {
+                return false;
+            }
+            holder = identity.getSeatId();
+            return true;
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+            holder = FREE_FLAG;
+        }
+
+    }
+
+    /**
+     * Fork state is changed by workers of both adjacent segments under the monitor of the fork
+     */
+    static class BoundaryFork extends SegmentFork {
+
+        private volatile int holder = FREE_FLAG;
+
+        BoundaryFork(int id) {
+            super(id);
+        }
+
+        @Override
+        boolean isBoundary() {
+            return true;
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        @Override
+        protected synchronized boolean take0(Identity identity) {
+            if (holder != FREE_FLAG) {
+                return false;
+            }
+            holder = identity.getSeatId();
+            return true;
+        }
+
+        @Override
+        protected synchronized void release0(Identity identity) {
+            assert holder == identity.getSeatId() : identity + " is not a holder of #" + id;
+            holder = FREE_FLAG;
+        }
+
+    }
+
+    /**
+     * Every step is performed by the worker of the segment, so recorders are updated as within a single thread
+     */
+    @Slf4j
+    static class SegmentPhilosopher extends Philosopher<SegmentFork, SegmentPhilosopher> {
+
+        enum State {
+            HUNGRY,
+            EATING,
+            HOLDING,
+            THINKING,
+            DONE
+        }
+
+        private final Segmented segmented;
+        private final CompletableFuture<Result> done = new CompletableFuture<>();
+
+        private volatile State state = State.HUNGRY;
+        private long startNanos;
+        private long stateStartNanos;
+
+        /**
+         * When the current step ends, worker keeps its timers ordered by it
+         */
+        private long deadlineNanos;
+
+        public SegmentPhilosopher(Segmented dinner, Identity identity) {
+            super(dinner, identity);
+            this.segmented = dinner;
+        }
+
+        @Override
+        protected boolean isShutdown() {
+            return segmented.isShutdown();
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        /**
+         * Philosopher is driven by the worker of its segment, the calling thread only waits for the result
+         */
+        @Override
+        public Result run() {
+            return done.join();
+        }
+
+        void start(long now) {
+            startNanos = now;
+            timeRecorder.recordStart();
+            hungry(now);
+        }
+
+        private void hungry(long now) {
+            state = State.HUNGRY;
+            stateStartNanos = now;
+            timeRecorder.recordHungry(now);
+        }
+
+        /**
+         * Called when forks are granted
+         */
+        void eating(long now) {
+            dinner.getLiveRecorder().recordAttempt(now - stateStartNanos);
+            dinner.getLiveRecorder().recordMeal(timeRecorder.recordAcquiring(stateStartNanos, true, false));
+            dinner.getConcurrencyRecorder().recordEatingStart();
+
+            state = State.EATING;
+            stateStartNanos = now;
+            deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(calculateEatingDurationMillis());
+        }
+
+        /**
+         * Hot forks are held till the deadline without blocking the worker
+         *
+         * @return true if forks should be released right now
+         */
+        boolean finishEating(long now) {
+            long eatingNanos = now - stateStartNanos;
+            dinner.getConcurrencyRecorder().recordEatingEnd();
+            timeRecorder.recordEating(eatingNanos);
+            dinner.getLiveRecorder().recordEating(getSeatId(), eatingNanos);
+
+            long releaseDelayMillis = Math.max(leftFork.getReleaseDelayMillis(), rightFork.getReleaseDelayMillis());
+            if (releaseDelayMillis <= 0) {
+                return true;
+            }
+
+            state = State.HOLDING;
+            deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(releaseDelayMillis);
+            return false;
+        }
+
+        void thinking(long now) {
+            state = State.THINKING;
+            stateStartNanos = now;
+            deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(calculateThinkingDurationMillis());
+        }
+
+        void finishThinking(long now) {
+            timeRecorder.recordThinking(now - stateStartNanos);
+            hungry(now);
+        }
+
+        /**
+         * Should be called when philosopher holds no forks, the current step is cut short as by interruption
+         */
+        Result finish(long now) {
+            if (state == State.HUNGRY) {
+                dinner.getLiveRecorder().recordAttempt(now - stateStartNanos);
+                timeRecorder.recordAcquiring(stateStartNanos, false, false);
+            } else if (state == State.THINKING) {
+                timeRecorder.recordThinking(now - stateStartNanos);
+            }
+
+            state = State.DONE;
+            timeRecorder.recordTotal(now - startNanos);
+            log.info(identity + " finished the dinner");
+
+            Result result = Result.from(identity, timeRecorder);
+            done.complete(result);
+            return result;
+        }
+
+    }
+
+    /**
+     * Worker thread of a segment with its single-threaded state, everything except {@link #wakeUp()} and
+     * {@link #stop()} is called only within worker thread
+     */
+    @Slf4j
+    static class Worker implements Runnable {
+
+        private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        private final Segmented dinner;
+        private final int segment;
+        private final Thread thread;
+
+        private final List<SegmentPhilosopher> philosophers = new ArrayList<>();
+        private final PriorityQueue<SegmentPhilosopher> timers =
+                new PriorityQueue<>(Comparator.comparingLong((SegmentPhilosopher philosopher) -> philosopher.deadlineNanos));
+        private final ArrayDeque<SegmentPhilosopher> waiting = new ArrayDeque<>();
+        private final BitSet claimedForks;
+
+        private volatile boolean sleeping = false;
+        private volatile boolean boundaryReleased = false;
+
+        private long steps;
+        private long grants;
+        private long boundaryMisses;
+
+        Worker(Segmented dinner, int segment) {
+            this.dinner = dinner;
+            this.segment = segment;
+            this.claimedForks = new BitSet(dinner.getForkCount());
+            this.thread = new Thread(this, StringUtils.leftPad("Segment" + segment, Identity.MAX_LENGTH));
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        /**
+         * Worker stops by itself on shutdown, when its philosophers have released their forks
+         */
+        void stop() {
+            try {
+                thread.join();
+
+            } catch (InterruptedException e) {
+                log.debug("Interrupted while waiting for worker of segment {} to stop", segment);
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Called by worker of the adjacent segment, when it has released the boundary fork
+         */
+        void wakeUp() {
+            boundaryReleased = true;
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            for (SegmentPhilosopher philosopher : philosophers) {
+                philosopher.start(now);
+                waiting.add(philosopher);
+            }
+            boolean changed = true;
+
+            while (!dinner.isShutdown()) {
+                if (boundaryReleased) {
+                    boundaryReleased = false;
+                    changed = true;
+                }
+
+                now = System.nanoTime();
+                while (!timers.isEmpty() && timers.peek().deadlineNanos <= now) {
+                    changed |= step(timers.poll(), now);
+                    steps++;
+                }
+
+                if (changed) {
+                    grantWaiting(now);
+                    changed = false;
+                }
+
+                // Adjacent worker checks the flag after releasing, so either we see the release or it unparks us.
+                // Shutdown is not signalled to workers, so they check it at least every park period.
+                sleeping = true;
+                if (!boundaryReleased && !dinner.isShutdown()) {
+                    long untilNextStep = timers.isEmpty() ? PARK_NANOS : timers.peek().deadlineNanos - System.nanoTime();
+                    LockSupport.parkNanos(this, Math.min(untilNextStep, PARK_NANOS));
+                }
+                sleeping = false;
+            }
+
+            finish();
+
+            log.info("Segment {} of seats {}-{} performed {} steps, granted forks {} times, boundary fork was busy {} times",
+                    segment, dinner.firstSeatOf(segment), dinner.firstSeatOf(segment + 1) - 1,
+                    steps, grants, boundaryMisses);
+        }
+
+        /**
+         * @return true if philosopher has released its forks or become hungry
+         */
+        private boolean step(SegmentPhilosopher philosopher, long now) {
+            switch (philosopher.getState()) {
+                case EATING:
+                    if (!philosopher.finishEating(now)) {
+                        timers.add(philosopher);
+                        return false;
+                    }
+                    releaseAndThink(philosopher, now);
+                    return true;
+
+                case HOLDING:
+                    releaseAndThink(philosopher, now);
+                    return true;
+
+                case THINKING:
+                    philosopher.finishThinking(now);
+                    waiting.add(philosopher);
+                    return true;
+
+                default:
+                    throw new IllegalStateException(philosopher.getIdentity() + " has no timer in state " + philosopher.getState());
+            }
+        }
+
+        private void releaseAndThink(SegmentPhilosopher philosopher, long now) {
+            philosopher.getTimeRecorder().recordForkAccess(() -> releaseForks(philosopher));
+            philosopher.thinking(now);
+            timers.add(philosopher);
+        }
+
+        private void releaseForks(SegmentPhilosopher philosopher) {
+            SegmentFork leftFork = philosopher.getLeftFork();
+            SegmentFork rightFork = philosopher.getRightFork();
+            Identity identity = philosopher.getIdentity();
+
+            rightFork.release(identity);
+            if (rightFork.isBoundary()) {
+                dinner.workers[(segment + dinner.workers.length - 1) % dinner.workers.length].wakeUp();
+            }
+            leftFork.release(identity);
+            if (leftFork.isBoundary()) {
+                dinner.workers[(segment + 1) % dinner.workers.length].wakeUp();
+            }
+        }
+
+        /**
+         * Waiting philosophers are served in FIFO order within the segment, boundary fork is taken
+         * only when both inner forks are available
+         */
+        private void grantWaiting(long now) {
+            claimedForks.clear();
+
+            Iterator<SegmentPhilosopher> iterator = waiting.iterator();
+            while (iterator.hasNext()) {
+                SegmentPhilosopher philosopher = iterator.next();
+                SegmentFork leftFork = philosopher.getLeftFork();
+                SegmentFork rightFork = philosopher.getRightFork();
+                Identity identity = philosopher.getIdentity();
+
+                if (isAvailable(leftFork) && isAvailable(rightFork)) {
+                    if (takeBoundary(leftFork, identity) && takeBoundary(rightFork, identity)) {
+                        takeInner(leftFork, identity);
+                        takeInner(rightFork, identity);
+                        iterator.remove();
+                        grants++;
+                        philosopher.eating(now);
+                        timers.add(philosopher);
+                        continue;
+                    }
+                    boundaryMisses++;
+                }
+
+                // Preserve inner forks for the earlier waiter
+                claimedForks.set(leftFork.getId());
+                claimedForks.set(rightFork.getId());
+            }
+        }
+
+        private boolean isAvailable(SegmentFork fork) {
+            return fork.isBoundary() || (!fork.isBusy() && !claimedForks.get(fork.getId()));
+        }
+
+        /**
+         * Philosopher has at most one boundary fork, so there is nothing to roll back on failure
+         */
+        private static boolean takeBoundary(SegmentFork fork, Identity identity) {
+            return !fork.isBoundary() || fork.take(identity);
+        }
+
+        private static void takeInner(SegmentFork fork, Identity identity) {
+            if (!fork.isBoundary()) {
+                fork.take(identity);
+            }
+        }
+
+        /**
+         * Eaters are cut short as interrupted philosophers are, then everybody releases forks and reports its result
+         */
+        private void finish() {
+            long now = System.nanoTime();
+            for (SegmentPhilosopher philosopher : philosophers) {
+                SegmentPhilosopher.State state = philosopher.getState();
+                if (state == SegmentPhilosopher.State.EATING) {
+                    philosopher.finishEating(now);
+                }
+                if (state == SegmentPhilosopher.State.EATING || state == SegmentPhilosopher.State.HOLDING) {
+                    philosopher.getTimeRecorder().recordForkAccess(() -> releaseForks(philosopher));
+                }
+                dinner.coordinator.collect(philosopher.finish(now));
+            }
+
+            timers.clear();
+            waiting.clear();
+            dinner.coordinator.finished();
+        }
+
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.solveme.philosophers.*;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Improved variation of {@link Notify} approach. Each fork has a {@link ReentrantLock} with an explicit
+ * {@link Condition}, which is signalled on release only if somebody waits for it.
+ * <p>
+ * Acquiring is two-phase: philosopher waits until the busy fork is released while holding nothing, then tries
+ * to take both forks without blocking. If the second fork is busy, the first one is released immediately
+ * and philosopher waits for the second one. Thus philosopher never holds a fork while waiting for another one,
+ * so neither deadlock nor timeouts are possible.
+ */
+public class Signal extends Dinner<Signal.SignalFork, Signal.SignalPhilosopher> {
+
+    public Signal(DinnerApp.Settings settings) {
+        super(settings);
+    }
+
+    @Override
+    public SignalFork buildFork(Dinner<SignalFork, SignalPhilosopher> dinner, int forkId) {
+        return new SignalFork(forkId);
+    }
+
+    @Override
+    public SignalPhilosopher buildPhilosopher(Dinner<SignalFork, SignalPhilosopher> dinner, Identity identity) {
+        return new SignalPhilosopher(dinner, identity);
+    }
+
+    @Slf4j
+    static class SignalFork extends Fork {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+
+        private volatile int holder = FREE_FLAG;
+
+        /**
+         * Guarded by lock
+         */
+        private int waiters = 0;
+
+        public SignalFork(int id) {
+            super(id);
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder;
+        }
+
+        /**
+         * Never blocks on the busy fork
+         */
+        @Override
+        protected boolean take0(Identity identity) {
+            lock.lock();
+            try {
+                if (isBusy()) {
+                    return false;
+                }
+
+                log.debug("Take {} fork #{}", sideFor(identity).name().toLowerCase(), id);
+                holder = identity.getSeatId();
+                return true;
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        protected void release0(Identity identity) {
+            lock.lock();
+            try {
+                log.debug("Release {} fork #{}", sideFor(identity).name().toLowerCase(), id);
+                holder = FREE_FLAG;
+
+                if (waiters > 0) {
+                    released.signalAll();
+                }
+
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until the fork is released, but doesn't take it
+         *
+         * @return false if waiting was interrupted
+         */
+        boolean awaitRelease(Identity identity) {
+            lock.lock();
+            waiters++;
+            try {
+                while (isBusy()) {
+                    log.trace("{} waits until {} releases the fork #{}", identity, Identity.at(holder), id);
+                    released.await();
+                }
+                return true;
+
+            } catch (InterruptedException e) {
+                log.debug("Interrupt during waiting for #{} by {}", id, identity);
+                Thread.currentThread().interrupt();
+                return false;
+
+            } finally {
+                waiters--;
+                lock.unlock();
+            }
+        }
+
+    }
+
+    @Slf4j
+    static class SignalPhilosopher extends ThreadedPhilosopher<SignalFork, SignalPhilosopher> {
+
+        public SignalPhilosopher(Dinner<SignalFork, SignalPhilosopher> dinner, Identity identity) {
+            super(dinner, identity);
+        }
+
+        @Override
+        public boolean acquireForks0() {
+            SignalFork awaited = leftFork;
+
+            while (!isShutdown() && awaited.awaitRelease(identity)) {
+                SignalFork other = awaited == leftFork ? rightFork : leftFork;
+
+                if (awaited.take(identity)) {
+                    if (other.take(identity)) {
+                        return true;
+                    }
+
+                    // Don't hold the fork while waiting for another one
+                    awaited.release(identity);
+                    awaited = other;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public void releaseForks0() {
+            rightFork.release(identity);
+            leftFork.release(identity);
+        }
+
+    }
+
+}
@@ -8,8 +8,9 @@ import org.solveme.philosophers.*;
 /**
  * Straight forward solution that performs acquiring/releasing via intrinsic locks on forks objects. For preventing
  * deadlock when all philosophers have acquired left fork and are waiting on releasing right fork (that would never
- * happen in this case) ${@link AcquiringOrder} helper was introduced. This object would encapsulate acquiring order
- * and would use inverted order for first philosopher ${@link SynchronizedPhilosopher#SynchronizedPhilosopher(Dinner, Identity)}
+ * happen in this case) ${@link AcquiringOrder} helper was introduced. This object would encapsulate acquiring order:
+ * fork with greater id is always acquired first, so the philosopher sitting next to the ring wrap-around
+ * uses inverted order ${@link SynchronizedPhilosopher#SynchronizedPhilosopher(Dinner, Identity)}
  */
 public class Synchronized extends Dinner<Synchronized.SynchronizedFork, Synchronized.SynchronizedPhilosopher> {
 
@@ -59,18 +60,20 @@ public class Synchronized extends Dinner<Synchronized.SynchronizedFork, Synchron
     }
 
     @Slf4j
-    static class SynchronizedPhilosopher extends Philosopher<SynchronizedFork, SynchronizedPhilosopher> {
+    static class SynchronizedPhilosopher extends ThreadedPhilosopher<SynchronizedFork, SynchronizedPhilosopher> {
 
-        private final AcquiringOrder acquiringOrder;
+        private AcquiringOrder acquiringOrder;
 
         public SynchronizedPhilosopher(Dinner<SynchronizedFork, SynchronizedPhilosopher> dinner,
                                        Identity identity
         ) {
             super(dinner, identity);
-            // One of philosophers should acquire/release forks in reverse order to avoid deadlock
-            acquiringOrder = getSeatId() != 0
-                    ? AcquiringOrder.straight(identity, getLeftFork(), getRightFork())
-                    : AcquiringOrder.reverse(identity, getLeftFork(), getRightFork());
+            acquiringOrder = AcquiringOrder.of(identity, getLeftFork(), getRightFork());
+        }
+
+        @Override
+        protected void onRewired(SynchronizedFork previousRightFork) {
+            acquiringOrder = AcquiringOrder.of(identity, getLeftFork(), getRightFork());
         }
 
         @Override
@@ -92,6 +95,19 @@ public class Synchronized extends Dinner<Synchronized.SynchronizedFork, Synchron
         private final SynchronizedFork first;
         private final SynchronizedFork second;
 
+        /**
+         * One of philosophers (whose right fork is on the other side of the ring wrap-around)
+         * should acquire/release forks in reverse order to avoid deadlock
+         */
+        public static AcquiringOrder of(Identity identity,
+                                        SynchronizedFork leftFork,
+                                        SynchronizedFork rightFork
+        ) {
+            return leftFork.getId() > rightFork.getId()
+                    ? straight(identity, leftFork, rightFork)
+                    : reverse(identity, leftFork, rightFork);
+        }
+
         public static AcquiringOrder straight(Identity identity,
                                               SynchronizedFork leftFork,
                                               SynchronizedFork rightFork
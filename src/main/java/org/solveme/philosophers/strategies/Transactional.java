@@ -0,0 +1,358 @@
+package org.solveme.philosophers.strategies;
+
+import lombok.extern.slf4j.Slf4j;
+import org.solveme.philosophers.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Solution, where both forks are acquired by a single transaction of a small software transactional memory
+ * (TL2 design): each fork holder is guarded by a versioned lock, reads are optimistic and validated against
+ * the global version clock, and write locks are taken only at commit time. Conflicting transaction is aborted
+ * and retried, failed acquiring means that consistent snapshot shows a busy fork.
+ */
+@Slf4j
+public class Transactional extends Dinner<Transactional.TransactionalFork, Transactional.TransactionalPhilosopher> {
+
+    private final Stm stm = new Stm();
+
+    public Transactional(DinnerApp.Settings settings) {
+        super(settings);
+    }
+
+    @Override
+    public TransactionalFork buildFork(Dinner<TransactionalFork, TransactionalPhilosopher> dinner, int forkId) {
+        return new TransactionalFork(forkId, stm);
+    }
+
+    @Override
+    public TransactionalPhilosopher buildPhilosopher(Dinner<TransactionalFork, TransactionalPhilosopher> dinner, Identity identity) {
+        return new TransactionalPhilosopher(dinner, identity, stm);
+    }
+
+    @Override
+    protected void beforeResults() {
+        stm.logStatistics();
+    }
+
+
+    /**
+     * Global version clock and statistics of all transactions
+     */
+    @Slf4j
+    static class Stm {
+
+        private final AtomicLong clock = new AtomicLong();
+
+        private final LongAdder commits = new LongAdder();
+        private final LongAdder busy = new LongAdder();
+        private final LongAdder readAborts = new LongAdder();
+        private final LongAdder lockAborts = new LongAdder();
+        private final LongAdder validationAborts = new LongAdder();
+
+        long getAborts() {
+            return readAborts.sum() + lockAborts.sum() + validationAborts.sum();
+        }
+
+        void logStatistics() {
+            long aborts = getAborts();
+            long attempts = commits.sum() + busy.sum() + aborts;
+            log.info("Transactions: {} committed, {} saw busy fork, {} aborted ({} on read, {} on locking, {} on validation), abort rate {}%",
+                    commits.sum(), busy.sum(), aborts, readAborts.sum(), lockAborts.sum(), validationAborts.sum(),
+                    String.format("%.2f", attempts == 0 ? 0D : 100D * aborts / attempts));
+        }
+
+    }
+
+    /**
+     * Transactional variable with versioned lock: version of the last commit is kept in upper bits,
+     * the lowest bit is set while the variable is locked by committing transaction
+     */
+    static class TVar {
+
+        private static final long LOCKED = 1;
+
+        private final AtomicLong lock = new AtomicLong();
+        private volatile int value;
+
+        TVar(int value) {
+            this.value = value;
+        }
+
+        int get() {
+            return value;
+        }
+
+        boolean tryLock() {
+            long word = lock.get();
+            return (word & LOCKED) == 0 && lock.compareAndSet(word, word | LOCKED);
+        }
+
+        void unlock() {
+            lock.set(lock.get() & ~LOCKED);
+        }
+
+        void unlock(long writeVersion) {
+            lock.set(writeVersion << 1);
+        }
+
+        static boolean isLocked(long word) {
+            return (word & LOCKED) != 0;
+        }
+
+        static long versionOf(long word) {
+            return word >>> 1;
+        }
+
+    }
+
+    /**
+     * Thrown when transaction could not be completed consistently, so it should be retried from the beginning.
+     * Single instance without stack trace is shared, since it's a control flow signal.
+     */
+    static class Abort extends RuntimeException {
+
+        private static final Abort INSTANCE = new Abort();
+
+        private Abort() {
+            super("Transaction aborted", null, false, false);
+        }
+
+    }
+
+    /**
+     * Transaction over at most two variables, should be used only within its owner thread
+     */
+    static class Transaction {
+
+        private static final int CAPACITY = 2;
+
+        private final Stm stm;
+
+        private final TVar[] reads = new TVar[CAPACITY];
+        private final TVar[] writes = new TVar[CAPACITY];
+        private final int[] values = new int[CAPACITY];
+        private int readCount;
+        private int writeCount;
+        private long readVersion;
+
+        Transaction(Stm stm) {
+            this.stm = stm;
+        }
+
+        void begin() {
+            readCount = 0;
+            writeCount = 0;
+            readVersion = stm.clock.get();
+        }
+
+        /**
+         * Value is consistent with all previous reads, otherwise transaction is aborted
+         */
+        int read(TVar var) {
+            for (int i = 0; i < writeCount; i++) {
+                if (writes[i] == var) {
+                    return values[i];
+                }
+            }
+
+            long before = var.lock.get();
+            int value = var.value;
+            long after = var.lock.get();
+            if (TVar.isLocked(before) || before != after || TVar.versionOf(before) > readVersion) {
+                stm.readAborts.increment();
+                throw Abort.INSTANCE;
+            }
+
+            reads[readCount++] = var;
+            return value;
+        }
+
+        void write(TVar var, int value) {
+            for (int i = 0; i < writeCount; i++) {
+                if (writes[i] == var) {
+                    values[i] = value;
+                    return;
+                }
+            }
+
+            writes[writeCount] = var;
+            values[writeCount] = value;
+            writeCount++;
+        }
+
+        /**
+         * Read-only transaction is already consistent, others lock their write set, validate their read set
+         * against the new version and publish written values
+         */
+        void commit() {
+            if (writeCount == 0) {
+                return;
+            }
+
+            int locked = 0;
+            try {
+                for (; locked < writeCount; locked++) {
+                    if (!writes[locked].tryLock()) {
+                        stm.lockAborts.increment();
+                        throw Abort.INSTANCE;
+                    }
+                }
+
+                long writeVersion = stm.clock.incrementAndGet();
+                // Nobody has committed since the transaction has begun, so its reads are still valid
+                if (writeVersion != readVersion + 1) {
+                    validate();
+                }
+
+                for (int i = 0; i < writeCount; i++) {
+                    writes[i].value = values[i];
+                }
+                for (int i = 0; i < writeCount; i++) {
+                    writes[i].unlock(writeVersion);
+                }
+                locked = 0;
+                stm.commits.increment();
+
+            } finally {
+                for (int i = 0; i < locked; i++) {
+                    writes[i].unlock();
+                }
+            }
+        }
+
+        private void validate() {
+            for (int i = 0; i < readCount; i++) {
+                long word = reads[i].lock.get();
+                if (TVar.versionOf(word) > readVersion || TVar.isLocked(word) && !isWritten(reads[i])) {
+                    stm.validationAborts.increment();
+                    throw Abort.INSTANCE;
+                }
+            }
+        }
+
+        private boolean isWritten(TVar var) {
+            for (int i = 0; i < writeCount; i++) {
+                if (writes[i] == var) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    static class TransactionalFork extends Fork {
+
+        private final TVar holder;
+        private final Transaction transaction;
+
+        public TransactionalFork(int id, Stm stm) {
+            super(id);
+            this.holder = new TVar(FREE_FLAG);
+            // Forks are released by their holders only, so the transaction is never used concurrently
+            this.transaction = new Transaction(stm);
+        }
+
+        @Override
+        public int getHolderId() {
+            return holder.get();
+        }
+
+        /**
+         * Single fork transaction, philosophers acquire both forks by a transaction of their own
+         */
+        @Override
+        protected synchronized boolean take0(Identity identity) {
+            while (true) {
+                transaction.begin();
+                try {
+                    if (transaction.read(holder) != FREE_FLAG) {
+                        transaction.stm.busy.increment();
+                        return false;
+                    }
+                    transaction.write(holder, identity.getSeatId());
+                    transaction.commit();
+                    return true;
+
+                } catch (Abort e) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        /**
+         * Write-only transaction, which is aborted only by concurrent commit of a reader
+         */
+        @Override
+        protected synchronized void release0(Identity identity) {
+            assert holder.get() == identity.getSeatId() : identity + " is not a holder of #" + id;
+            while (true) {
+                transaction.begin();
+                try {
+                    transaction.write(holder, FREE_FLAG);
+                    transaction.commit();
+                    return;
+
+                } catch (Abort e) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        void markTaken() {
+            takenTimestamp = System.nanoTime();
+        }
+
+    }
+
+    static class TransactionalPhilosopher extends ThreadedPhilosopher<TransactionalFork, TransactionalPhilosopher> {
+
+        private final Transaction transaction;
+
+        public TransactionalPhilosopher(Dinner<TransactionalFork, TransactionalPhilosopher> dinner, Identity identity, Stm stm) {
+            super(dinner, identity);
+            this.transaction = new Transaction(stm);
+        }
+
+        /**
+         * Aborted transaction is retried until it either commits or sees a busy fork
+         */
+        @Override
+        public boolean acquireForks0() {
+            while (!isShutdown()) {
+                transaction.begin();
+                try {
+                    if (transaction.read(leftFork.holder) != Fork.FREE_FLAG
+                            || transaction.read(rightFork.holder) != Fork.FREE_FLAG) {
+                        transaction.stm.busy.increment();
+                        return false;
+                    }
+
+                    transaction.write(leftFork.holder, getSeatId());
+                    transaction.write(rightFork.holder, getSeatId());
+                    transaction.commit();
+
+                    leftFork.markTaken();
+                    rightFork.markTaken();
+                    return true;
+
+                } catch (Abort e) {
+                    Thread.onSpinWait();
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public void releaseForks0() {
+            rightFork.release(identity);
+            leftFork.release(identity);
+        }
+
+    }
+
+}
@@ -0,0 +1,334 @@
+package org.solveme.philosophers.workload;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Describes how long a single action (eating or thinking) lasts. Distribution itself is immutable and may be shared
+ * between philosophers, while each philosopher draws values through its own {@link #sampler(SplittableRandom)}
+ * backed by a philosopher-local random generator, so no generator state is shared between threads.
+ * <p>
+ * Textual specification (see {@link #parse(String, int)}) has form <code>name[:param,...]</code>, omitted parameters
+ * are derived from the action duration factor <code>A</code>:
+ * <ul>
+ *     <li><code>uniform[:min,max]</code> - uniform on [min, max), default [A, 2A)</li>
+ *     <li><code>constant[:millis]</code> - always the same value, default 1.5A</li>
+ *     <li><code>exp[:mean]</code> - exponential, default mean 1.5A</li>
+ *     <li><code>pareto[:scale,shape]</code> - heavy-tailed Pareto, default scale A and shape 1.5</li>
+ *     <li><code>bimodal[:low,high,probability]</code> - <code>high</code> with given probability, otherwise
+ *     <code>low</code>, default A, 10A and 0.1</li>
+ *     <li><code>trace:path</code> - replays durations (one value in millis per line) from file</li>
+ * </ul>
+ */
+@Getter
+@RequiredArgsConstructor
+public abstract class Distribution {
+
+    private final String name;
+
+    /**
+     * @param random philosopher-local generator, must not be shared with other threads
+     * @return supplier of action durations in millis
+     */
+    public abstract LongSupplier sampler(@Nonnull SplittableRandom random);
+
+    public abstract double getMeanMillis();
+
+    /**
+     * @return distribution, which values are values of this distribution multiplied by factor
+     */
+    public Distribution scale(double factor) {
+        return new Scaled(this, factor);
+    }
+
+    public static Distribution uniform(long minMillis, long maxMillis) {
+        return new Uniform(minMillis, maxMillis);
+    }
+
+    public static Distribution constant(long millis) {
+        return new Constant(millis);
+    }
+
+    public static Distribution exponential(double meanMillis) {
+        return new Exponential(meanMillis);
+    }
+
+    public static Distribution pareto(double scaleMillis, double shape) {
+        return new Pareto(scaleMillis, shape);
+    }
+
+    public static Distribution bimodal(long lowMillis, long highMillis, double highProbability) {
+        return new Bimodal(lowMillis, highMillis, highProbability);
+    }
+
+    public static Distribution trace(@Nonnull Path path) {
+        return new Trace(path.toString(), readTrace(path));
+    }
+
+    @Nonnull
+    public static Distribution parse(@Nonnull String spec, int actionDurationMillis) {
+        String name = StringUtils.substringBefore(spec, ":").trim().toLowerCase();
+        String[] params = spec.contains(":")
+                ? StringUtils.split(StringUtils.substringAfter(spec, ":"), ',')
+                : new String[0];
+
+        long a = actionDurationMillis;
+
+        switch (name) {
+            case "uniform":
+                return uniform(longParam(params, 0, a), longParam(params, 1, 2 * a));
+            case "constant":
+                return constant(longParam(params, 0, a + a / 2));
+            case "exp":
+                return exponential(doubleParam(params, 0, 1.5 * a));
+            case "pareto":
+                return pareto(doubleParam(params, 0, a), doubleParam(params, 1, 1.5));
+            case "bimodal":
+                return bimodal(longParam(params, 0, a), longParam(params, 1, 10 * a), doubleParam(params, 2, 0.1));
+            case "trace":
+                if (params.length == 0) {
+                    throw new IllegalArgumentException("Trace distribution requires path to file: " + spec);
+                }
+                return trace(Paths.get(StringUtils.substringAfter(spec, ":").trim()));
+            default:
+                throw new IllegalArgumentException("Unknown distribution '" + name + "' in " + spec);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    // Helpers
+
+    private static long longParam(String[] params, int index, long defaultValue) {
+        return index < params.length ? Long.parseLong(params[index].trim()) : defaultValue;
+    }
+
+    private static double doubleParam(String[] params, int index, double defaultValue) {
+        return index < params.length ? Double.parseDouble(params[index].trim()) : defaultValue;
+    }
+
+    private static long[] readTrace(Path path) {
+        try {
+            long[] values = Files.readAllLines(path).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .mapToLong(Long::parseLong)
+                    .toArray();
+
+            if (values.length == 0) {
+                throw new IllegalArgumentException("Trace " + path + " contains no durations");
+            }
+
+            return values;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read trace " + path, e);
+        }
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+
+    static class Uniform extends Distribution {
+
+        private final long minMillis;
+        private final long maxMillis;
+
+        Uniform(long minMillis, long maxMillis) {
+            super("uniform[" + minMillis + "," + maxMillis + ")");
+            require(minMillis >= 0 && minMillis <= maxMillis, "Illegal uniform bounds: " + getName());
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        @Override
+        public LongSupplier sampler(@Nonnull SplittableRandom random) {
+            if (minMillis == maxMillis) {
+                return () -> minMillis;
+            }
+            return () -> random.nextLong(minMillis, maxMillis);
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return minMillis == maxMillis ? minMillis : (minMillis + maxMillis - 1) / 2D;
+        }
+
+    }
+
+    static class Constant extends Distribution {
+
+        private final long millis;
+
+        Constant(long millis) {
+            super("constant(" + millis + ")");
+            require(millis >= 0, "Illegal constant duration: " + millis);
+            this.millis = millis;
+        }
+
+        @Override
+        public LongSupplier sampler(@Nonnull SplittableRandom random) {
+            return () -> millis;
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return millis;
+        }
+
+    }
+
+    static class Exponential extends Distribution {
+
+        private final double meanMillis;
+
+        Exponential(double meanMillis) {
+            super("exp(" + meanMillis + ")");
+            require(meanMillis > 0, "Illegal exponential mean: " + meanMillis);
+            this.meanMillis = meanMillis;
+        }
+
+        @Override
+        public LongSupplier sampler(@Nonnull SplittableRandom random) {
+            // 1 - nextDouble() belongs to (0, 1], so logarithm is always defined
+            return () -> (long) (-meanMillis * Math.log(1 - random.nextDouble()));
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+    }
+
+    static class Pareto extends Distribution {
+
+        private final double scaleMillis;
+        private final double shape;
+
+        Pareto(double scaleMillis, double shape) {
+            super("pareto(" + scaleMillis + "," + shape + ")");
+            require(scaleMillis > 0 && shape > 0, "Illegal pareto parameters: " + getName());
+            this.scaleMillis = scaleMillis;
+            this.shape = shape;
+        }
+
+        @Override
+        public LongSupplier sampler(@Nonnull SplittableRandom random) {
+            double exponent = 1 / shape;
+            // Double to long conversion saturates at Long.MAX_VALUE, so extreme tail values are safe
+            return () -> (long) (scaleMillis / Math.pow(1 - random.nextDouble(), exponent));
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return shape > 1 ? shape * scaleMillis / (shape - 1) : Double.POSITIVE_INFINITY;
+        }
+
+    }
+
+    static class Bimodal extends Distribution {
+
+        private final long lowMillis;
+        private final long highMillis;
+        private final double highProbability;
+
+        Bimodal(long lowMillis, long highMillis, double highProbability) {
+            super("bimodal(" + lowMillis + "," + highMillis + "," + highProbability + ")");
+            require(lowMillis >= 0 && highMillis >= 0, "Illegal bimodal durations: " + getName());
+            require(highProbability >= 0 && highProbability <= 1, "Illegal bimodal probability: " + getName());
+            this.lowMillis = lowMillis;
+            this.highMillis = highMillis;
+            this.highProbability = highProbability;
+        }
+
+        @Override
+        public LongSupplier sampler(@Nonnull SplittableRandom random) {
+            return () -> random.nextDouble() < highProbability ? highMillis : lowMillis;
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return lowMillis + (highMillis - lowMillis) * highProbability;
+        }
+
+    }
+
+    static class Trace extends Distribution {
+
+        private final long[] values;
+
+        Trace(String source, long[] values) {
+            super("trace(" + source + ")");
+            this.values = values;
+        }
+
+        /**
+         * Each sampler replays the trace from its own random offset, so philosophers sharing
+         * the trace don't move in lockstep
+         */
+        @Override
+        public LongSupplier sampler(@Nonnull SplittableRandom random) {
+            int[] cursor = {random.nextInt(values.length)};
+            return () -> {
+                long value = values[cursor[0]];
+                cursor[0] = (cursor[0] + 1) % values.length;
+                return value;
+            };
+        }
+
+        @Override
+        public double getMeanMillis() {
+            double sum = 0;
+            for (long value : values) {
+                sum += value;
+            }
+            return sum / values.length;
+        }
+
+    }
+
+    static class Scaled extends Distribution {
+
+        private final Distribution origin;
+        private final double factor;
+
+        Scaled(Distribution origin, double factor) {
+            super(origin.getName() + "*" + factor);
+            require(factor > 0, "Illegal scale factor: " + factor);
+            this.origin = origin;
+            this.factor = factor;
+        }
+
+        @Override
+        public LongSupplier sampler(@Nonnull SplittableRandom random) {
+            LongSupplier originSampler = origin.sampler(random);
+            return () -> (long) (originSampler.getAsLong() * factor);
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return origin.getMeanMillis() * factor;
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package org.solveme.philosophers.workload;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Singular;
+import org.solveme.philosophers.Table;
+
+import java.util.Set;
+
+
+/**
+ * Describes hot spots of the dinner: greedy seats, that eat longer and think shorter than everybody else,
+ * and hot forks, that are released with delay by any of its users
+ */
+@Getter
+@Builder
+public class Scenario {
+
+    @Singular
+    private final Set<Integer> greedySeats;
+
+    /**
+     * Greedy philosopher eats <code>factor</code> times longer and thinks <code>factor</code> times shorter
+     */
+    @Builder.Default
+    private final double greedyFactor = 4;
+
+    @Singular
+    private final Set<Integer> hotForks;
+
+    @Builder.Default
+    private final long hotForkDelayMillis = 50;
+
+    public static Scenario none() {
+        return Scenario.builder().build();
+    }
+
+    public boolean hasHotSpots() {
+        return !greedySeats.isEmpty() || !hotForks.isEmpty();
+    }
+
+    public Workload applyTo(Workload workload) {
+        if (greedySeats.isEmpty()) {
+            return workload;
+        }
+
+        Workload.WorkloadBuilder builder = workload.toBuilder();
+        for (int seatId : greedySeats) {
+            builder.eatingAt(seatId, workload.eatingFor(seatId).scale(greedyFactor));
+            builder.thinkingAt(seatId, workload.thinkingFor(seatId).scale(1 / greedyFactor));
+        }
+
+        return builder.build();
+    }
+
+    public long releaseDelayMillisOf(int forkId) {
+        return hotForks.contains(forkId) ? hotForkDelayMillis : 0;
+    }
+
+    /**
+     * Role is resolved by the position at the table at the end of the dinner, so the seat could be already vacant
+     * (its philosopher has left), then it's classified by the nearest taken seats
+     */
+    public Role roleOf(int seatId, Table table) {
+        if (greedySeats.contains(seatId)) {
+            return Role.HOT;
+        }
+
+        int rightSeatId = table.nearestRightSeat(seatId);
+        boolean nearGreedy = greedySeats.contains(table.nearestLeftSeat(seatId))
+                || greedySeats.contains(rightSeatId);
+        boolean nearHotFork = hotForks.contains(table.leftForkIdFor(seatId))
+                || hotForks.contains(Table.Side.LEFT.forkIdOf(rightSeatId));
+
+        return nearGreedy || nearHotFork ? Role.NEIGHBOUR : Role.DISTANT;
+    }
+
+    @Override
+    public String toString() {
+        return "greedy seats " + greedySeats + " x" + greedyFactor
+                + ", hot forks " + hotForks + " +" + hotForkDelayMillis + "ms";
+    }
+
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Role {
+        HOT("Hot"),
+        NEIGHBOUR("Neighbours"),
+        DISTANT("Others");
+
+        private final String title;
+    }
+
+}
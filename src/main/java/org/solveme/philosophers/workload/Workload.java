@@ -0,0 +1,49 @@
+package org.solveme.philosophers.workload;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+
+/**
+ * Eating/thinking duration distributions of the whole dinner with optional per-seat overrides
+ */
+@Getter
+@Builder(toBuilder = true)
+public class Workload {
+
+    @Nonnull
+    private final Distribution eating;
+
+    @Nonnull
+    private final Distribution thinking;
+
+    @Singular("eatingAt")
+    private final Map<Integer, Distribution> eatingBySeat;
+
+    @Singular("thinkingAt")
+    private final Map<Integer, Distribution> thinkingBySeat;
+
+    /**
+     * Default workload: both eating and thinking are uniform on [A, 2A)
+     */
+    public static Workload uniform(int actionDurationMillis) {
+        Distribution distribution = Distribution.uniform(actionDurationMillis, 2L * actionDurationMillis);
+        return Workload.builder()
+                .eating(distribution)
+                .thinking(distribution)
+                .build();
+    }
+
+    public Distribution eatingFor(int seatId) {
+        return eatingBySeat.getOrDefault(seatId, eating);
+    }
+
+    public Distribution thinkingFor(int seatId) {
+        return thinkingBySeat.getOrDefault(seatId, thinking);
+    }
+
+}
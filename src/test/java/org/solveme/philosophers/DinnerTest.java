@@ -6,12 +6,16 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.solveme.philosophers.strategies.Synchronized;
+import org.solveme.philosophers.workload.Scenario;
 
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.solveme.philosophers.Identity.*;
 
 
@@ -61,6 +65,49 @@ class DinnerTest {
         assertEquals(origin.getRightFork(), rightNeighbour.getLeftFork());
     }
 
+    @Test
+    void finishLatchIsNotLimitedInParties() throws InterruptedException {
+        Dinner.FinishLatch latch = new Dinner.FinishLatch(100_000);
+        latch.register();
+        for (int i = 0; i < 100_001; i++) {
+            latch.arrive();
+        }
+
+        // Released latch doesn't block
+        latch.await();
+    }
+
+    /**
+     * Results of philosophers, who have left, are displayed along with the scenario roles
+     */
+    @Test
+    void churnWithGreedySeatDisplaysResults() throws InterruptedException {
+        DinnerApp.Settings settings = DinnerApp.Settings.builder()
+                .seatCount(4)
+                .seatCapacity(6)
+                .durationSeconds(60)
+                .actionDurationMillis(5)
+                .scenario(Scenario.builder().greedySeat(1).hotFork(2).build())
+                .build();
+
+        Synchronized churned = new Synchronized(settings);
+        churned.init();
+        Thread host = new Thread(churned::start);
+        host.start();
+        while (churned.timeRecorder.getStart() == null) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(churned.leave(1));
+        assertTrue(churned.join(5));
+        assertTrue(churned.leave(2));
+
+        // Results are displayed by this call, so a failure is not lost in the host thread
+        churned.stop(true);
+        host.interrupt();
+        host.join();
+    }
+
 
     @Accessors(chain = true)
     @Setter(value = AccessLevel.PRIVATE)
@@ -0,0 +1,46 @@
+package org.solveme.philosophers;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class RetryPolicyTest {
+
+    private static final long UNIT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void backoffCeilingGrowsUpToUnit() {
+        SplittableRandom random = new SplittableRandom(42);
+
+        assertThat(IntStream.range(0, 1000).mapToLong(i -> RetryPolicy.BACKOFF.delayNanos(1, 0, UNIT, random)))
+                .allMatch(delay -> delay >= 0 && delay <= UNIT / 32);
+        assertThat(IntStream.range(0, 1000).mapToLong(i -> RetryPolicy.BACKOFF.delayNanos(64, 0, UNIT, random)))
+                .allMatch(delay -> delay >= 0 && delay <= UNIT)
+                .anyMatch(delay -> delay > UNIT / 2);
+    }
+
+    @Test
+    void adaptiveDelayFollowsContention() {
+        SplittableRandom random = new SplittableRandom(42);
+        double contention = 0;
+        for (int i = 0; i < 100; i++) {
+            contention = RetryPolicy.estimateContention(contention, true);
+        }
+
+        assertThat(contention).isGreaterThan(0.99);
+        assertThat(RetryPolicy.ADAPTIVE.delayNanos(1, contention, UNIT, random)).isBetween(UNIT / 2 - 1, UNIT);
+        assertThat(RetryPolicy.ADAPTIVE.delayNanos(1, 0, UNIT, random)).isZero();
+    }
+
+    @Test
+    void thinkPolicyNeverRetries() {
+        assertThat(RetryPolicy.THINK.delayNanos(1, 1, UNIT, new SplittableRandom())).isEqualTo(RetryPolicy.THINK_AGAIN);
+    }
+
+}
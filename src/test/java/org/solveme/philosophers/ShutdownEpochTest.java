@@ -0,0 +1,27 @@
+package org.solveme.philosophers;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ShutdownEpochTest {
+
+    @Test
+    void onlyTheFirstBroadcastDefinesGracefulness() {
+        ShutdownEpoch epoch = new ShutdownEpoch();
+        assertFalse(epoch.isBroadcast());
+
+        assertTrue(epoch.broadcast(true));
+        long broadcastNanos = epoch.getBroadcastNanos();
+
+        assertFalse(epoch.broadcast(false));
+        assertTrue(epoch.isBroadcast());
+        assertTrue(epoch.isGraceful());
+        assertEquals(broadcastNanos, epoch.getBroadcastNanos());
+    }
+
+}
@@ -0,0 +1,66 @@
+package org.solveme.philosophers;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class StartGateTest {
+
+    @Test
+    void everybodyPassesAfterTheEpoch() throws InterruptedException {
+        StartGate gate = new StartGate(50);
+        AtomicInteger passed = new AtomicInteger();
+
+        List<Thread> parties = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Thread party = new Thread(() -> {
+                if (gate.arriveAndAwait() && System.nanoTime() >= gate.getStartNanos()) {
+                    passed.incrementAndGet();
+                }
+            });
+            party.start();
+            parties.add(party);
+        }
+
+        assertTrue(gate.awaitAndOpen());
+        for (Thread party : parties) {
+            party.join();
+        }
+
+        assertEquals(50, passed.get());
+        assertTrue(gate.getStartSkewNanos() >= 0);
+    }
+
+    @Test
+    void interruptedOpenerCancelsTheGate() throws InterruptedException {
+        StartGate gate = new StartGate(2);
+        AtomicInteger cancelled = new AtomicInteger();
+
+        Thread party = new Thread(() -> {
+            if (!gate.arriveAndAwait()) {
+                cancelled.incrementAndGet();
+            }
+        });
+        party.start();
+
+        Thread.currentThread().interrupt();
+        assertFalse(gate.awaitAndOpen());
+        assertTrue(Thread.interrupted());
+
+        party.join();
+        assertEquals(1, cancelled.get());
+        assertEquals(0, gate.getStartNanos());
+
+        // Late party doesn't wait for the cancelled gate
+        assertFalse(gate.arriveAndAwait());
+    }
+
+}
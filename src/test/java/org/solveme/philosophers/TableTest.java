@@ -0,0 +1,62 @@
+package org.solveme.philosophers;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class TableTest {
+
+    @Test
+    void joiningSeatIsPlacedBetweenNearestNeighbours() {
+        Table table = new Table(6, 3);
+
+        Table.Neighbourhood neighbourhood = table.seat(4);
+
+        assertEquals(0, neighbourhood.getLeftNeighbour());
+        assertEquals(2, neighbourhood.getRightNeighbour());
+        assertEquals(4, table.getLeftNeighbour(2));
+        assertEquals(4, table.getRightNeighbour(0));
+        assertEquals(4, table.rightForkIdFor(0));
+        assertEquals(2, table.rightForkIdFor(4));
+    }
+
+    @Test
+    void leavingSeatLinksItsNeighbours() {
+        Table table = new Table(4);
+
+        Table.Neighbourhood neighbourhood = table.unseat(1);
+
+        assertEquals(2, neighbourhood.getLeftNeighbour());
+        assertEquals(0, neighbourhood.getRightNeighbour());
+        assertEquals(0, table.rightForkIdFor(2));
+        assertEquals(2, table.getLeftNeighbour(0));
+        assertFalse(table.isSeated(1));
+        assertEquals(3, table.getSize());
+    }
+
+    @Test
+    void atLeastTwoSeatsStayTaken() {
+        Table table = new Table(3, 2);
+
+        assertThrows(IllegalStateException.class, () -> table.unseat(0));
+        assertEquals(2, table.nextVacantSeat(0));
+        assertEquals(0, table.nextTakenSeat(2));
+    }
+
+    @Test
+    void nearestSeatsAreResolvedForVacantSeat() {
+        Table table = new Table(6, 4);
+        table.unseat(1);
+
+        assertEquals(2, table.nearestLeftSeat(1));
+        assertEquals(0, table.nearestRightSeat(1));
+        assertEquals(0, table.nearestLeftSeat(5));
+        assertEquals(3, table.nearestRightSeat(5));
+        assertThrows(IllegalStateException.class, () -> table.getLeftNeighbour(1));
+    }
+
+}
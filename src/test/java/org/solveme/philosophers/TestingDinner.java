@@ -44,7 +44,7 @@ public class TestingDinner extends Dinner<TestingDinner.TestingFork, TestingDinn
         }
     }
 
-    static class TestingPhilosopher extends Philosopher<TestingFork, TestingPhilosopher> {
+    static class TestingPhilosopher extends ThreadedPhilosopher<TestingFork, TestingPhilosopher> {
 
         public TestingPhilosopher(Dinner<TestingFork, TestingPhilosopher> dinner, Identity identity) {
             super(dinner, identity);
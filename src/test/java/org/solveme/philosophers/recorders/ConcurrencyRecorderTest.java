@@ -0,0 +1,62 @@
+package org.solveme.philosophers.recorders;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ConcurrencyRecorderTest {
+
+    @Test
+    void intervalsAreAccountedToLevelsOfEaters() throws InterruptedException {
+        ConcurrencyRecorder recorder = new ConcurrencyRecorder(4);
+
+        recorder.recordStart();
+        recorder.recordEatingStart();
+        recorder.recordEatingStart();
+        Thread.sleep(20);
+        recorder.recordEatingEnd();
+        recorder.recordEnd();
+        recorder.recordEatingEnd();
+
+        ConcurrencyRecorder.Summary summary = recorder.summary(4);
+
+        assertEquals(2, summary.getPeak());
+        assertEquals(2, summary.getBound());
+        assertTrue(summary.getShareOf(2) > 0.5);
+        assertEquals(0, summary.getShareOf(3));
+        assertTrue(summary.getAverage() > 1 && summary.getAverage() <= 2);
+        assertTrue(summary.getEfficiency() > 0.5 && summary.getEfficiency() <= 1);
+    }
+
+    @Test
+    void mealsInProgressAreAccountedUpToNow() throws InterruptedException {
+        ConcurrencyRecorder recorder = new ConcurrencyRecorder(4);
+
+        recorder.recordStart();
+        long before = recorder.getEatingNanos();
+        recorder.recordEatingStart();
+        recorder.recordEatingStart();
+        Thread.sleep(20);
+        long during = recorder.getEatingNanos();
+
+        assertTrue(during - before >= 2 * TimeUnit.MILLISECONDS.toNanos(15));
+        assertTrue(recorder.getEatingNanos() >= during);
+    }
+
+    @Test
+    void capacityCoversMillionsOfSeats() {
+        ConcurrencyRecorder recorder = new ConcurrencyRecorder(5_000_000);
+
+        recorder.recordStart();
+        recorder.recordEatingStart();
+
+        assertEquals(1, recorder.getCurrent());
+        assertEquals(1, recorder.getPeak());
+    }
+
+}
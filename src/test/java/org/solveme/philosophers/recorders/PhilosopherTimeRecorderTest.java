@@ -0,0 +1,40 @@
+package org.solveme.philosophers.recorders;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class PhilosopherTimeRecorderTest {
+
+    @Test
+    void snapshotIsNeverTorn() throws InterruptedException {
+        PhilosopherTimeRecorder recorder = new PhilosopherTimeRecorder();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        recorder.recordStart();
+        Thread writer = new Thread(() -> {
+            while (running.get()) {
+                // Every attempt is successful, so meals and attempts always go together
+                recorder.recordAcquiring(System.nanoTime(), true, false);
+            }
+        });
+        writer.start();
+
+        try {
+            for (int i = 0; i < 100_000; i++) {
+                PhilosopherTimeRecorder.Snapshot snapshot = recorder.snapshot();
+                assertEquals(snapshot.getMeals(), snapshot.getAcquireAttempts());
+                assertTrue(snapshot.getForkAccessNanos() <= snapshot.getTotalNanos());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+}
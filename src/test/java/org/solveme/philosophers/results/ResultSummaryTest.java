@@ -0,0 +1,47 @@
+package org.solveme.philosophers.results;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class ResultSummaryTest {
+
+    private static final ResultSummary.Metric<Long> VALUE = ResultSummary.Metric.count("Value", v -> v);
+
+    @Test
+    void percentilesAreWithinRelativeError() {
+        ResultSummary.Histogram histogram = new ResultSummary.Histogram();
+        LongStream.rangeClosed(1, 1_000_000).forEach(histogram::add);
+
+        assertEquals(1, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, histogram.getMean());
+        for (double quantile : new double[]{0.5, 0.9, 0.99}) {
+            long expected = (long) (quantile * 1_000_000);
+            long actual = histogram.getPercentile(quantile);
+            assertTrue(actual >= expected && actual <= expected + expected / 32, quantile + ": " + actual);
+        }
+    }
+
+    @Test
+    void parallelAggregationKeepsExtremeRows() {
+        List<Long> values = LongStream.range(0, 100_000).boxed().collect(Collectors.toList());
+        Collections.shuffle(values);
+
+        ResultSummary<Long> summary = ResultSummary.of(values, Collections.singletonList(VALUE), VALUE, 3);
+
+        assertEquals(100_000, summary.getCount());
+        assertEquals(Arrays.asList(99_999L, 99_998L, 99_997L), summary.getHighest());
+        assertEquals(Arrays.asList(0L, 1L, 2L), summary.getLowest());
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.solveme.philosophers.strategies;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class PackedTest {
+
+    @Test
+    void forksOfTheSameWordAreTakenTogether() {
+        Packed.ForkWords words = new Packed.ForkWords(8);
+
+        assertTrue(words.tryTakeBoth(3, 2));
+        assertFalse(words.tryTakeBoth(4, 3));
+        assertFalse(words.isTaken(4));
+        assertEquals(1, words.singleCasTakes.sum());
+
+        words.release(3);
+        assertTrue(words.tryTakeBoth(4, 3));
+    }
+
+    @Test
+    void forksAtWordBoundaryAreRolledBack() {
+        Packed.ForkWords words = new Packed.ForkWords(128);
+
+        assertTrue(words.tryTake(64));
+        assertFalse(words.tryTakeBoth(64, 63));
+        assertFalse(words.isTaken(63));
+
+        words.release(64);
+        assertTrue(words.tryTakeBoth(64, 63));
+        assertEquals(1, words.splitTakes.sum());
+    }
+
+    @Test
+    void forksAtWrapAroundAreTakenInOrderOfWords() {
+        Packed.ForkWords words = new Packed.ForkWords(100);
+
+        assertTrue(words.tryTake(0));
+        assertFalse(words.tryTakeBoth(0, 99));
+        assertFalse(words.isTaken(99));
+        assertEquals(0, words.rollbacks.sum());
+
+        words.release(0);
+        assertTrue(words.tryTakeBoth(99, 98));
+        assertFalse(words.tryTakeBoth(0, 99));
+        assertFalse(words.isTaken(0));
+        assertEquals(1, words.rollbacks.sum());
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.solveme.philosophers.strategies;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class TransactionalTest {
+
+    @Test
+    void transactionIsAbortedWhenItsReadIsOverwritten() {
+        Transactional.Stm stm = new Transactional.Stm();
+        Transactional.TVar left = new Transactional.TVar(0);
+        Transactional.TVar right = new Transactional.TVar(0);
+
+        Transactional.Transaction slow = new Transactional.Transaction(stm);
+        slow.begin();
+        assertEquals(0, slow.read(left));
+
+        Transactional.Transaction fast = new Transactional.Transaction(stm);
+        fast.begin();
+        fast.write(left, 1);
+        fast.commit();
+
+        // Overwritten variable is newer than the snapshot of the slow transaction
+        assertThrows(Transactional.Abort.class, () -> slow.read(left));
+
+        slow.begin();
+        assertEquals(1, slow.read(left));
+        slow.write(right, 2);
+        slow.commit();
+
+        assertEquals(2, right.get());
+        assertEquals(1, stm.getAborts());
+    }
+
+    @Test
+    void commitIsAbortedWhenReadSetIsChangedAfterReading() {
+        Transactional.Stm stm = new Transactional.Stm();
+        Transactional.TVar left = new Transactional.TVar(0);
+        Transactional.TVar right = new Transactional.TVar(0);
+
+        Transactional.Transaction slow = new Transactional.Transaction(stm);
+        slow.begin();
+        slow.read(left);
+        slow.read(right);
+        slow.write(left, 1);
+
+        Transactional.Transaction fast = new Transactional.Transaction(stm);
+        fast.begin();
+        fast.write(right, 2);
+        fast.commit();
+
+        assertThrows(Transactional.Abort.class, slow::commit);
+        assertEquals(0, left.get());
+        assertEquals(1, stm.getAborts());
+
+        // Locks of aborted transaction are released
+        fast.begin();
+        fast.write(left, 3);
+        fast.commit();
+        assertEquals(3, left.get());
+    }
+
+}
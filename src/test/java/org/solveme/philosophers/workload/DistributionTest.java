@@ -0,0 +1,73 @@
+package org.solveme.philosophers.workload;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class DistributionTest {
+
+    private static final int ACTION_DURATION = 100;
+
+    @Test
+    void defaultUniformMatchesActionDurationFactor() {
+        LongSupplier sampler = Distribution.parse("uniform", ACTION_DURATION).sampler(new SplittableRandom(42));
+
+        assertThat(LongStream.of(sample(sampler, 1000))).allMatch(v -> v >= ACTION_DURATION && v < 2 * ACTION_DURATION);
+    }
+
+    @Test
+    void explicitParametersOverrideDefaults() {
+        assertThat(Distribution.parse("constant:7", ACTION_DURATION).sampler(new SplittableRandom()).getAsLong())
+                .isEqualTo(7);
+        assertThat(Distribution.parse("bimodal:1,2,0.5", ACTION_DURATION).getMeanMillis())
+                .isEqualTo(1.5);
+    }
+
+    @Test
+    void paretoIsBoundedByScaleFromBelow() {
+        LongSupplier sampler = Distribution.parse("pareto:50,1.2", ACTION_DURATION).sampler(new SplittableRandom(42));
+
+        assertThat(LongStream.of(sample(sampler, 1000))).allMatch(v -> v >= 50);
+    }
+
+    @Test
+    void sameSeedProducesSameDurations() {
+        Distribution distribution = Distribution.parse("exp", ACTION_DURATION);
+
+        assertThat(sample(distribution.sampler(new SplittableRandom(7)), 100))
+                .containsExactly(sample(distribution.sampler(new SplittableRandom(7)), 100));
+    }
+
+    @Test
+    void traceIsReplayedCyclically() throws IOException {
+        Path trace = Files.createTempFile("durations", ".trace");
+        Files.write(trace, Arrays.asList("# comment", "10", "", "20", "30"));
+
+        long[] values = sample(Distribution.parse("trace:" + trace, ACTION_DURATION).sampler(new SplittableRandom()), 6);
+
+        assertThat(values).containsOnly(10, 20, 30);
+        assertThat(values[3]).isEqualTo(values[0]);
+    }
+
+    @Test
+    void unknownDistributionIsRejected() {
+        assertThatThrownBy(() -> Distribution.parse("gaussian", ACTION_DURATION))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] sample(LongSupplier sampler, int count) {
+        return LongStream.generate(sampler).limit(count).toArray();
+    }
+
+}
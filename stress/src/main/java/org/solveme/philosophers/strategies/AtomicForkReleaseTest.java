@@ -0,0 +1,58 @@
+package org.solveme.philosophers.strategies;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+import static org.solveme.philosophers.Identity.ARISTOTLE;
+import static org.solveme.philosophers.Identity.PLATO;
+
+
+/**
+ * The first result is set when the invariant guard of the holder's release fails, so it's meaningful with -ea only
+ */
+@JCStressTest
+@Description("Holder releases the fork, while its neighbour tries to take it")
+@Outcome(id = "0, 0, -1024", expect = ACCEPTABLE, desc = "Neighbour came before releasing, the fork is free")
+@Outcome(id = "0, 1, 1", expect = ACCEPTABLE, desc = "Neighbour took the released fork")
+@Outcome(id = "1, .*", expect = FORBIDDEN, desc = "Invariant guard rejected the holder")
+@Outcome(id = "0, 0, 0", expect = FORBIDDEN, desc = "Release is lost, the fork is still held")
+@Outcome(expect = FORBIDDEN, desc = "Holder and result of taking disagree")
+@State
+public class AtomicForkReleaseTest {
+
+    private final Atomic.AtomicFork fork = new Atomic.AtomicFork(0);
+
+    public AtomicForkReleaseTest() {
+        fork.setRightUser(ARISTOTLE);
+        fork.setLeftUser(PLATO);
+        fork.take(ARISTOTLE);
+    }
+
+    @Actor
+    public void aristotle(III_Result r) {
+        try {
+            fork.release(ARISTOTLE);
+
+        } catch (AssertionError e) {
+            r.r1 = 1;
+        }
+    }
+
+    @Actor
+    public void plato(III_Result r) {
+        r.r2 = fork.take(PLATO) ? 1 : 0;
+    }
+
+    @Arbiter
+    public void holder(III_Result r) {
+        r.r3 = fork.getHolderId();
+    }
+
+}
@@ -0,0 +1,41 @@
+package org.solveme.philosophers.strategies;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+import static org.solveme.philosophers.Identity.ARISTOTLE;
+import static org.solveme.philosophers.Identity.PLATO;
+
+
+@JCStressTest
+@Description("Both users of a free fork try to take it at once")
+@Outcome(id = {"1, 0", "0, 1"}, expect = ACCEPTABLE, desc = "Exactly one user holds the fork")
+@Outcome(id = "1, 1", expect = FORBIDDEN, desc = "Both users hold the fork")
+@Outcome(id = "0, 0", expect = FORBIDDEN, desc = "Free fork is taken by nobody")
+@State
+public class AtomicForkTakeTest {
+
+    private final Atomic.AtomicFork fork = new Atomic.AtomicFork(0);
+
+    public AtomicForkTakeTest() {
+        fork.setRightUser(ARISTOTLE);
+        fork.setLeftUser(PLATO);
+    }
+
+    @Actor
+    public void aristotle(II_Result r) {
+        r.r1 = fork.take(ARISTOTLE) ? 1 : 0;
+    }
+
+    @Actor
+    public void plato(II_Result r) {
+        r.r2 = fork.take(PLATO) ? 1 : 0;
+    }
+
+}
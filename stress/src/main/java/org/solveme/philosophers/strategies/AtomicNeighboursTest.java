@@ -0,0 +1,63 @@
+package org.solveme.philosophers.strategies;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.solveme.philosophers.DinnerApp;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE_INTERESTING;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+
+/**
+ * Each result is the amount of eaters seen by the philosopher while eating, or zero if it failed to acquire forks
+ */
+@JCStressTest
+@Description("Neighbours, who share a fork, acquire both of their forks at once")
+@Outcome(id = {"1, 0", "0, 1", "1, 1"}, expect = ACCEPTABLE, desc = "Neighbours ate one after another, or one of them lost the race")
+@Outcome(id = "0, 0", expect = ACCEPTABLE_INTERESTING, desc = "Each took one fork and backed off")
+@Outcome(expect = FORBIDDEN, desc = "Neighbours ate at the same time")
+@State
+public class AtomicNeighboursTest {
+
+    private final Atomic dinner;
+    private final Atomic.AtomicPhilosopher aristotle;
+    private final Atomic.AtomicPhilosopher plato;
+
+    private final AtomicInteger eaters = new AtomicInteger();
+
+    public AtomicNeighboursTest() {
+        dinner = new Atomic(DinnerApp.Settings.builder().seatCount(4).build());
+        dinner.init();
+        aristotle = dinner.getPhilosopherBySeatId(0);
+        plato = dinner.getPhilosopherBySeatId(1);
+    }
+
+    @Actor
+    public void aristotle(II_Result r) {
+        r.r1 = eat(aristotle);
+    }
+
+    @Actor
+    public void plato(II_Result r) {
+        r.r2 = eat(plato);
+    }
+
+    private int eat(Atomic.AtomicPhilosopher philosopher) {
+        if (!philosopher.acquireForks0()) {
+            return 0;
+        }
+
+        int seen = eaters.incrementAndGet();
+        eaters.decrementAndGet();
+        philosopher.releaseForks0();
+        return seen;
+    }
+
+}
@@ -0,0 +1,63 @@
+package org.solveme.philosophers.strategies;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.solveme.philosophers.DinnerApp;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+
+/**
+ * Waiter makes the later neighbour wait until the shared fork is released, so both always eat. Runners of
+ * philosophers are never started, thus interruption of the holder by the waiter is a no-op here.
+ * Each result is the amount of eaters seen by the philosopher while eating.
+ */
+@JCStressTest
+@Description("Neighbours, who share a fork, ask the waiter for forks at once")
+@Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Neighbours ate one after another")
+@Outcome(id = {"0, .*", ".*, 0"}, expect = FORBIDDEN, desc = "Waiter refused a philosopher, whose other fork is free")
+@Outcome(expect = FORBIDDEN, desc = "Neighbours ate at the same time")
+@State
+public class ManagedNeighboursTest {
+
+    private final Managed.ManagedPhilosopher aristotle;
+    private final Managed.ManagedPhilosopher plato;
+
+    private final AtomicInteger eaters = new AtomicInteger();
+
+    public ManagedNeighboursTest() {
+        Managed dinner = new Managed(DinnerApp.Settings.builder().seatCount(4).build());
+        dinner.init();
+        aristotle = dinner.getPhilosopherBySeatId(0);
+        plato = dinner.getPhilosopherBySeatId(1);
+    }
+
+    @Actor
+    public void aristotle(II_Result r) {
+        r.r1 = eat(aristotle);
+    }
+
+    @Actor
+    public void plato(II_Result r) {
+        r.r2 = eat(plato);
+    }
+
+    private int eat(Managed.ManagedPhilosopher philosopher) {
+        if (!philosopher.acquireForks0()) {
+            return 0;
+        }
+
+        int seen = eaters.incrementAndGet();
+        eaters.decrementAndGet();
+        philosopher.releaseForks0();
+        return seen;
+    }
+
+}
@@ -0,0 +1,57 @@
+package org.solveme.philosophers.strategies;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.solveme.philosophers.Identity;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+import static org.solveme.philosophers.Identity.ARISTOTLE;
+import static org.solveme.philosophers.Identity.PLATO;
+
+
+/**
+ * Each result is the holder seen by the user while it holds the fork, or -1 if it failed to take the fork
+ */
+@JCStressTest
+@Description("Both users take, hold and release the fork at once, the loser waits for the winner")
+@Outcome(id = "0, 1", expect = ACCEPTABLE, desc = "Users held the fork one after another")
+@Outcome(id = {"0, -1", "-1, 1"}, expect = ACCEPTABLE, desc = "Waiting has timed out")
+@Outcome(expect = FORBIDDEN, desc = "Holder is overwritten by another user")
+@State
+public class NotifyForkExclusionTest {
+
+    private static final int FAILED = -1;
+
+    private final Notify.NotifyFork fork = new Notify.NotifyFork(0);
+
+    public NotifyForkExclusionTest() {
+        fork.setRightUser(ARISTOTLE);
+        fork.setLeftUser(PLATO);
+    }
+
+    @Actor
+    public void aristotle(II_Result r) {
+        r.r1 = use(ARISTOTLE);
+    }
+
+    @Actor
+    public void plato(II_Result r) {
+        r.r2 = use(PLATO);
+    }
+
+    private int use(Identity identity) {
+        if (!fork.take(identity)) {
+            return FAILED;
+        }
+
+        int holder = fork.getHolderId();
+        fork.release(identity);
+        return holder;
+    }
+
+}
@@ -0,0 +1,51 @@
+package org.solveme.philosophers.strategies;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+import static org.solveme.philosophers.Identity.ARISTOTLE;
+import static org.solveme.philosophers.Identity.PLATO;
+
+
+/**
+ * Neighbour waits for the busy fork, so it always gets the fork unless the notification is lost
+ */
+@JCStressTest
+@Description("Holder releases the fork, while its neighbour waits for it")
+@Outcome(id = "1, 1", expect = ACCEPTABLE, desc = "Neighbour was notified and took the fork")
+@Outcome(id = "0, -1024", expect = FORBIDDEN, desc = "Notification is lost, neighbour gave up after timeout")
+@Outcome(expect = FORBIDDEN, desc = "Holder and result of taking disagree")
+@State
+public class NotifyForkHandOffTest {
+
+    private final Notify.NotifyFork fork = new Notify.NotifyFork(0);
+
+    public NotifyForkHandOffTest() {
+        fork.setRightUser(ARISTOTLE);
+        fork.setLeftUser(PLATO);
+        fork.take(ARISTOTLE);
+    }
+
+    @Actor
+    public void aristotle() {
+        fork.release(ARISTOTLE);
+    }
+
+    @Actor
+    public void plato(II_Result r) {
+        r.r1 = fork.take(PLATO) ? 1 : 0;
+    }
+
+    @Arbiter
+    public void holder(II_Result r) {
+        r.r2 = fork.getHolderId();
+    }
+
+}